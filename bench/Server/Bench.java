@@ -0,0 +1,108 @@
+package Server;
+
+import java.lang.management.ManagementFactory;
+
+/*
+ * Bench
+ * ------------------------------------------------------
+ * - 외부 라이브러리 없이 쓰는 작은 마이크로벤치마크 도구
+ * - 워밍업 후 측정 구간을 여러 번 돌려
+ *   처리량(ops/s, 구간 간 편차)과 호출당 할당 바이트(B/op)를 출력
+ * - 할당량은 HotSpot의 스레드별 할당 카운터 기준
+ *   (com.sun.management.ThreadMXBean, 지원 안 하면 "-")
+ *
+ *     -Dbench.warmup=3      워밍업 구간 수
+ *     -Dbench.iterations=5  측정 구간 수
+ *     -Dbench.ms=500        구간 하나 길이 (ms)
+ *     -Dbench.filter=dense  이름에 이 문자열이 들어간 것만 실행
+ * ------------------------------------------------------
+ */
+
+final class Bench {
+
+    // 측정 대상 호출 1번 (반환값은 JIT가 호출을 지우지 못하게 모아 둠)
+    interface Op {
+        long run();
+    }
+
+    private static final int WARMUP = Integer.getInteger("bench.warmup", 3);
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5);
+    private static final long SLICE_NS = Long.getLong("bench.ms", 500) * 1_000_000L;
+    private static final String FILTER = System.getProperty("bench.filter", "");
+
+    // 호출 결과를 모으는 곳 (dead code 제거 방지)
+    static volatile long sink;
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private Bench() {}
+
+    static void header() {
+        System.out.printf("%-36s %14s %10s %10s%n", "benchmark", "ops/s", "±%", "B/op");
+    }
+
+    // ------------------------------------------
+    // 벤치마크 하나 실행 후 한 줄 출력
+    // ------------------------------------------
+    static void run(String name, Op op) {
+
+        if (!name.contains(FILTER)) return;
+
+        for (int i = 0; i < WARMUP; i++) slice(op);
+
+        double[] rates = new double[ITERATIONS];
+        long ops = 0, bytes = 0;
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            long before = allocated();
+            long start = System.nanoTime();
+            long n = slice(op);
+            long elapsed = System.nanoTime() - start;
+
+            bytes += allocated() - before;
+            ops += n;
+            rates[i] = n * 1e9 / elapsed;
+        }
+
+        double mean = 0;
+        for (double r : rates) mean += r;
+        mean /= rates.length;
+
+        double var = 0;
+        for (double r : rates) var += (r - mean) * (r - mean);
+        double err = (rates.length > 1) ? Math.sqrt(var / (rates.length - 1)) / mean * 100 : 0;
+
+        String alloc = (THREADS != null) ? String.format("%.1f", (double) bytes / ops) : "-";
+
+        System.out.printf("%-36s %14.0f %10.1f %10s%n", name, mean, err, alloc);
+    }
+
+    // 정해진 시간 동안 op를 반복, 호출 횟수 반환
+    private static long slice(Op op) {
+        long end = System.nanoTime() + SLICE_NS;
+        long n = 0, acc = 0;
+
+        do {
+            for (int i = 0; i < 256; i++) acc += op.run();
+            n += 256;
+        } while (System.nanoTime() < end);
+
+        sink += acc;
+        return n;
+    }
+
+    private static long allocated() {
+        return (THREADS != null) ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        try {
+            com.sun.management.ThreadMXBean bean =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+}
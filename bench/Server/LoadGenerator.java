@@ -0,0 +1,327 @@
+package Server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * LoadGenerator
+ * ------------------------------------------------------
+ * - 화면 없는 봇 클라이언트 N개로 OmokServer에 부하를 거는 도구
+ * - 기존 텍스트 프로토콜 그대로 사용
+ *     NICK → CREATEROOM / JOINROOM → PLACE ... → END
+ * - 봇 2개가 한 쌍: 하나가 방을 만들고 다른 하나가 들어가서
+ *   무작위 합법수(빈 칸, 흑은 금수 제외)로 대국, 끝나면 END 후 새 방
+ * - 봇 하나 = 가상 스레드 하나 (블로킹 소켓)
+ *   JDK 21 미만이면 플랫폼 데몬 스레드로 대신 실행
+ * - 주기적으로 / 마지막에 출력
+ *     PLACE 전송 → 내 MOVE 수신까지 지연 (p50/p99/max)
+ *     초당 착수 수, 끝난 판 수, ERROR 종류별 개수
+ *
+ * 실행:
+ *   java -cp out Server.LoadGenerator [host] [port] [clients] [seconds]
+ *     -Dload.thinkMs=200     착수 전 대기 (착수 속도 조절)
+ *     -Dload.maxMoves=120    한 판 최대 수 (넘으면 END)
+ *     -Dload.reportSec=5     중간 보고 주기
+ * ------------------------------------------------------
+ */
+
+public class LoadGenerator {
+
+    private static final int SIZE = 15;
+
+    private static final long THINK_MS = Long.getLong("load.thinkMs", 200);
+    private static final int MAX_MOVES = Integer.getInteger("load.maxMoves", 120);
+    private static final int REPORT_SEC = Integer.getInteger("load.reportSec", 5);
+
+    private final String host;
+    private final int port;
+    private final long deadline;
+
+    // 결과 집계 (봇 스레드들이 동시에 기록)
+    private final Metrics.Histogram latency = Metrics.histogram("load.placeToMove");
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder games = new LongAdder();
+    private final LongAdder connectFailures = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    private LoadGenerator(String host, int port, long deadline) {
+        this.host = host;
+        this.port = port;
+        this.deadline = deadline;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        String host = (args.length > 0) ? args[0] : "127.0.0.1";
+        int port = (args.length > 1) ? Integer.parseInt(args[1]) : 9999;
+        int clients = (args.length > 2) ? Integer.parseInt(args[2]) : 100;
+        int seconds = (args.length > 3) ? Integer.parseInt(args[3]) : 30;
+
+        clients += clients % 2;   // 짝수로
+
+        LoadGenerator gen = new LoadGenerator(host, port, System.nanoTime() + seconds * 1_000_000_000L);
+        gen.run(clients);
+    }
+
+
+    // ------------------------------------------
+    // 봇 실행 + 주기 보고
+    // ------------------------------------------
+    private void run(int clients) throws InterruptedException {
+
+        System.out.println("[LOAD] " + host + ":" + port + " 봇 " + clients + "개, 착수 간격 " + THINK_MS + "ms");
+
+        CountDownLatch done = new CountDownLatch(clients);
+        ThreadFactory threads = OmokServer.virtualThreadFactory("bot");
+        ExecutorService bots = Executors.newCachedThreadPool(
+                (threads != null) ? threads : Mailbox.daemonThreads("bot"));
+
+        for (int pair = 0; pair < clients / 2; pair++) {
+            SynchronousQueue<String> handoff = new SynchronousQueue<>();
+            bots.execute(new Bot("load" + pair + "a", pair, true, handoff, done));
+            bots.execute(new Bot("load" + pair + "b", pair, false, handoff, done));
+        }
+
+        long start = System.nanoTime();
+        long lastMoves = 0;
+
+        while (!done.await(REPORT_SEC, TimeUnit.SECONDS)) {
+            long m = moves.sum();
+            System.out.println(line(System.nanoTime() - start, (m - lastMoves) / (double) REPORT_SEC));
+            lastMoves = m;
+        }
+
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.println("[LOAD] 완료 " + String.format("%.1f", elapsed) + "s");
+        System.out.println(line(System.nanoTime() - start, moves.sum() / elapsed));
+        System.out.println("[LOAD] 접속 실패 " + connectFailures.sum() + ", ERROR " + errors);
+
+        bots.shutdownNow();
+    }
+
+    private String line(long elapsedNs, double movesPerSec) {
+        return String.format("[LOAD] %4ds 착수/s=%.0f 착수=%d 판=%d 지연 %s 오류=%d",
+                elapsedNs / 1_000_000_000L, movesPerSec, moves.sum(), games.sum(),
+                latency.summary(), errors.values().stream().mapToLong(LongAdder::sum).sum());
+    }
+
+    private void error(String kind) {
+        errors.computeIfAbsent(kind, k -> new LongAdder()).increment();
+    }
+
+
+    // ------------------------------------------
+    // 봇 하나
+    // ------------------------------------------
+    private final class Bot implements Runnable {
+
+        private final String nick;
+        private final int pair;
+        private final boolean host;     // 방 만드는 쪽 (END도 이쪽이 보냄)
+        private final SynchronousQueue<String> handoff;
+        private final CountDownLatch done;
+
+        private Socket socket;
+        private BufferedReader in;
+        private OutputStream out;
+
+        // 현재 판 상태
+        private final boolean[][] occupied = new boolean[SIZE][SIZE];
+        private final boolean[][] banned = new boolean[SIZE][SIZE];
+        private char myColor;
+        private int moveCount;
+        private int pendingR = -1, pendingC = -1;
+        private long pendingAt;
+
+        Bot(String nick, int pair, boolean host, SynchronousQueue<String> handoff, CountDownLatch done) {
+            this.nick = nick;
+            this.pair = pair;
+            this.host = host;
+            this.handoff = handoff;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                socket = new Socket(LoadGenerator.this.host, port);
+                socket.setTcpNoDelay(true);
+                in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                out = socket.getOutputStream();
+
+                send("NICK " + nick);
+                if (!await("NICKOK")) return;
+
+                for (int round = 0; System.nanoTime() < deadline; round++) {
+                    if (!joinGame(round)) break;
+                    playGame();
+                }
+
+            } catch (IOException e) {
+                connectFailures.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                try {
+                    if (socket != null) socket.close();
+                } catch (IOException ignore) {}
+                done.countDown();
+            }
+        }
+
+        // 방 만들기 / 들어가기 → START까지
+        private boolean joinGame(int round) throws IOException, InterruptedException {
+
+            if (host) {
+                String room = "load-" + pair + "-" + round;
+                send("CREATEROOM " + room);
+                if (!await("JOINED")) return false;
+                if (!handoff.offer(room, 30, TimeUnit.SECONDS)) return false;   // 상대 봇이 이미 끝남
+            } else {
+                String room = handoff.poll(30, TimeUnit.SECONDS);
+                if (room == null) return false;
+                send("JOINROOM " + room);
+            }
+
+            String start = readUntil("START");
+            if (start == null) return false;
+
+            myColor = start.charAt(6);
+            moveCount = 0;
+            pendingR = pendingC = -1;
+            for (int r = 0; r < SIZE; r++) {
+                for (int c = 0; c < SIZE; c++) {
+                    occupied[r][c] = false;
+                    banned[r][c] = false;
+                }
+            }
+            return true;
+        }
+
+        // 한 판: WIN 또는 최대 수까지, 방장이 END
+        private void playGame() throws IOException, InterruptedException {
+
+            String line;
+            while ((line = in.readLine()) != null) {
+
+                String[] sp = line.split(" ");
+
+                switch (sp[0]) {
+                    case "TURN":
+                        if (sp[1].charAt(0) == myColor) {
+                            // 최대 수 / 측정 시간 끝 → 방장이 판을 정리
+                            if (host && (moveCount >= MAX_MOVES || System.nanoTime() > deadline)) {
+                                send("END");
+                            } else {
+                                Thread.sleep(THINK_MS);
+                                place();
+                            }
+                        }
+                        break;
+
+                    case "MOVE": {
+                        int r = Integer.parseInt(sp[1]), c = Integer.parseInt(sp[2]);
+                        occupied[r][c] = true;
+                        moveCount++;
+                        if (r == pendingR && c == pendingC) {
+                            latency.recordSince(pendingAt);
+                            moves.increment();
+                            pendingR = pendingC = -1;
+                        }
+                        break;
+                    }
+
+                    case "BAN_CLEAR":
+                        for (boolean[] row : banned) Arrays.fill(row, false);
+                        break;
+
+                    case "BAN":
+                        banned[Integer.parseInt(sp[1])][Integer.parseInt(sp[2])] = true;
+                        break;
+
+                    case "ERROR":
+                        error(sp.length > 1 ? sp[1] : "?");
+                        // 금수/차례 오류 후에는 TURN이 다시 오지 않으므로 바로 다시 둔다
+                        if (pendingR >= 0) {
+                            banned[pendingR][pendingC] = true;
+                            place();
+                        }
+                        break;
+
+                    case "WIN":
+                        // 두 봇 모두 WIN을 받으므로 END를 보내는 방장만 센다
+                        if (host) {
+                            games.increment();
+                            send("END");
+                        }
+                        break;
+
+                    case "END":
+                        return;
+
+                    case "PING":
+                        send("PONG");
+                        break;
+                }
+            }
+            throw new IOException("서버 연결 끊김");
+        }
+
+        // 무작위 빈 칸 (흑이면 금수 제외)
+        private void place() throws IOException {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+            for (int tries = 0; tries < 1000; tries++) {
+                int r = rnd.nextInt(SIZE), c = rnd.nextInt(SIZE);
+                if (occupied[r][c] || (myColor == 'B' && banned[r][c])) continue;
+
+                pendingR = r;
+                pendingC = c;
+                pendingAt = System.nanoTime();
+                send("PLACE " + r + " " + c);
+                return;
+            }
+
+            // 둘 곳이 없음 → 방장이 정리
+            if (host) send("END");
+        }
+
+        private void send(String msg) throws IOException {
+            out.write((msg + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        private boolean await(String cmd) throws IOException {
+            return readUntil(cmd) != null;
+        }
+
+        // cmd로 시작하는 줄까지 읽음 (도중의 ERROR는 집계)
+        private String readUntil(String cmd) throws IOException {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith(cmd)) return line;
+                if (line.equals("PING")) send("PONG");
+                if (line.startsWith("ERROR")) {
+                    error(line.substring(Math.min(6, line.length())));
+                    if (!cmd.equals("START")) return null;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package Server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import Common.BinaryProtocol;
+
+/*
+ * RulesBenchmark
+ * ------------------------------------------------------
+ * - 오목 규칙 엔진 벤치마크 (Bench 사용)
+ * - 국면 3종: 빈 판 / 중반(40수) / 빽빽한 판(150수 안팎)
+ *   국면은 고정 시드로 만든 무작위 대국 (5목·흑 금수 자리는 피함)
+ * - 항목
+ *     isForbidden       빈 칸 하나의 금수 판정 (Board.isForbidden)
+ *     isForbidden.cache 같은 판정을 BanCache(2^12 집합)를 거쳐서
+ *     checkWin          놓인 돌 하나의 5목 판정 (Board.isWin)
+ *     getLine           11칸 창 하나 꺼내기 (Board.window)
+ *     updateBan.all     판 전체 금수 재판정 (BanTracker)
+ *     updateBan.one     착수 한 곳 주변만 재판정
+ *     handlePlace+undo  Room에서 흑 착수 + 무르기 한 쌍 (메시지 생성 포함)
+ *
+ * 실행 (src와 bench를 함께 컴파일):
+ *   javac -encoding UTF-8 -d out $(find src bench -name "*.java")
+ *   java -cp out Server.RulesBenchmark
+ * ------------------------------------------------------
+ */
+
+public class RulesBenchmark {
+
+    private static final int SIZE = Board.SIZE;
+
+    public static void main(String[] args) {
+
+        // 방 입장 로그가 표에 섞이지 않도록
+        if (System.getProperty("omok.log.room") == null) System.setProperty("omok.log.room", "warn");
+
+        LinePatterns.flags(0);   // 패턴표 생성은 측정에서 제외
+
+        Bench.header();
+
+        bench("empty", 0);
+        bench("mid", 40);
+        bench("dense", 150);
+
+        System.exit(0);
+    }
+
+    private static void bench(String name, int stones) {
+
+        List<int[]> moves = randomGame(stones, new Random(7));
+
+        Board board = new Board();
+        for (int i = 0; i < moves.size(); i++) {
+            int[] m = moves.get(i);
+            board.set(m[0], m[1], (i % 2 == 0) ? Board.BLACK : Board.WHITE);
+        }
+
+        int[] empties = cells(board, true);
+        int[] occupied = cells(board, false);
+        String tag = name + "(" + moves.size() + ")";
+
+        int[] i = new int[1];
+
+        Bench.run("isForbidden " + tag, () -> {
+            int p = empties[i[0]++ % empties.length];
+            return board.isForbidden(p / SIZE, p % SIZE) ? 1 : 0;
+        });
+
+        BanCache cache = new BanCache(12);
+
+        Bench.run("isForbidden.cache " + tag, () -> {
+            int p = empties[i[0]++ % empties.length];
+            int r = p / SIZE, c = p % SIZE;
+            return cache.isForbidden(
+                    board.window(Board.VERTICAL, r, c), board.window(Board.HORIZONTAL, r, c),
+                    board.window(Board.DIAGONAL, r, c), board.window(Board.ANTI_DIAGONAL, r, c)) ? 1 : 0;
+        });
+
+        if (occupied.length > 0) {
+            Bench.run("checkWin " + tag, () -> {
+                int p = occupied[i[0]++ % occupied.length];
+                return board.isWin(p / SIZE, p % SIZE, board.get(p / SIZE, p % SIZE)) ? 1 : 0;
+            });
+        }
+
+        Bench.run("getLine " + tag, () -> {
+            int n = i[0]++;
+            int p = empties[(n >>> 2) % empties.length];
+            return board.window(n & 3, p / SIZE, p % SIZE);
+        });
+
+        BanTracker bans = new BanTracker();
+
+        Bench.run("updateBan.all " + tag, () -> {
+            bans.markAll();
+            bans.update(board);
+            return bans.isBan(7, 7) ? 1 : 0;
+        });
+
+        Bench.run("updateBan.one " + tag, () -> {
+            int p = empties[i[0]++ % empties.length];
+            bans.markDirty(p / SIZE, p % SIZE);
+            bans.update(board);
+            return bans.isBan(p / SIZE, p % SIZE) ? 1 : 0;
+        });
+
+        benchHandlePlace(tag, moves, board);
+    }
+
+
+    // ------------------------------------------
+    // Room 전체 경로: 흑 착수 → (턴 전환, 메시지 생성) → 무르기 → 금수 갱신
+    // 무르기로 되돌리므로 국면이 유지된다
+    // ------------------------------------------
+    private static void benchHandlePlace(String tag, List<int[]> moves, Board board) {
+
+        Room room = new Room("bench", new RoomManager());
+        Player black = new Player("black");
+        Player white = new Player("white");
+        room.addPlayer(black);
+        room.addPlayer(white);
+
+        room.dispatch(black, BinaryProtocol.RESET, -1, -1);
+        for (int k = 0; k < moves.size(); k++) {
+            int[] m = moves.get(k);
+            room.dispatch((k % 2 == 0) ? black : white, BinaryProtocol.PLACE, m[0], m[1]);
+        }
+        black.flush();
+        white.flush();
+
+        // 흑 차례 국면이어야 함 (randomGame이 짝수 수로 끝남)
+        List<Integer> safe = new ArrayList<>();
+        for (int p : cells(board, true)) {
+            int r = p / SIZE, c = p % SIZE;
+            if (board.isForbidden(r, c)) continue;
+
+            board.set(r, c, Board.BLACK);
+            boolean win = board.isWin(r, c, Board.BLACK);
+            board.clear(r, c);
+
+            if (!win) safe.add(p);
+        }
+
+        int[] i = new int[1];
+
+        Bench.run("handlePlace+undo " + tag, () -> {
+            int p = safe.get(i[0]++ % safe.size());
+            room.dispatch(black, BinaryProtocol.PLACE, p / SIZE, p % SIZE);
+            room.dispatch(white, BinaryProtocol.CANCEL_YES, -1, -1);
+            black.flush();
+            white.flush();
+            return p;
+        });
+    }
+
+
+    // ------------------------------------------
+    // 국면 만들기
+    // ------------------------------------------
+    // 흑/백 번갈아 무작위 착수, 5목이 되거나 흑 금수인 자리는 건너뜀
+    // 흑 차례로 끝나도록 짝수 수만 사용
+    private static List<int[]> randomGame(int stones, Random rnd) {
+
+        Board board = new Board();
+        List<int[]> moves = new ArrayList<>();
+
+        int misses = 0;
+        while (moves.size() < stones && misses < 10_000) {
+
+            int r = rnd.nextInt(SIZE), c = rnd.nextInt(SIZE);
+            int color = (moves.size() % 2 == 0) ? Board.BLACK : Board.WHITE;
+
+            if (!board.isEmpty(r, c) || (color == Board.BLACK && board.isForbidden(r, c))) {
+                misses++;
+                continue;
+            }
+
+            board.set(r, c, color);
+            if (board.isWin(r, c, color)) {
+                board.clear(r, c);
+                misses++;
+                continue;
+            }
+
+            moves.add(new int[] { r, c });
+        }
+
+        if (moves.size() % 2 == 1) moves.remove(moves.size() - 1);
+        return moves;
+    }
+
+    private static int[] cells(Board board, boolean empty) {
+        List<Integer> list = new ArrayList<>();
+        for (int r = 0; r < SIZE; r++)
+            for (int c = 0; c < SIZE; c++)
+                if (board.isEmpty(r, c) == empty) list.add(r * SIZE + c);
+
+        int[] out = new int[list.size()];
+        for (int k = 0; k < out.length; k++) out[k] = list.get(k);
+        return out;
+    }
+}
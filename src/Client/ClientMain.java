@@ -53,7 +53,7 @@ public class ClientMain implements Network.MessageListener {
                 network.getOut()
         ));
 
-        network.send("ROOMLIST"); // 입장 시 방 목록 요청
+        network.send("ROOMSUB"); // 입장 시 방 목록 구독 (이후 변경분은 서버가 푸시)
     }
 
     // 게임 화면 표시
@@ -94,4 +94,12 @@ public class ClientMain implements Network.MessageListener {
             listener.onMessage(msg);
         }
     }
+
+    // 바이너리 프레임은 그대로 현재 UI에 전달
+    @Override
+    public void onFrame(int op, byte[] payload) {
+        if (currentUI instanceof Network.MessageListener listener) {
+            listener.onFrame(op, payload);
+        }
+    }
 }
@@ -2,25 +2,38 @@ package Client;
 
 import java.io.*;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import Common.BinaryProtocol;
 
 /**
  * Network
  * - 클라이언트의 소켓 통신을 담당
  * - 서버로부터 메시지를 지속적으로 수신하여 Listener(=ClientMain)에게 전달
+ * - 로그인(NICKOK) 직후 바이너리 프로토콜을 협상하고,
+ *   수락되면 송신도 프레임으로 바꾼다 (-Domok.proto=text 이면 협상 안 함)
+ * - 수신은 메시지마다 첫 바이트로 텍스트 줄 / 프레임을 구분
+ * - 서버 하트비트 PING에는 여기서 바로 PONG (UI까지 가지 않음)
+ * - 프레임 길이가 MAX_FRAME을 넘으면 그만큼 할당하지 않고 연결 종료
  */
 public class Network {
 
     // 서버 메시지를 전달받을 리스너 인터페이스
     public interface MessageListener {
         void onMessage(String msg);
+
+        // 바이너리 프레임 (TEXT 프레임은 onMessage로 전달됨)
+        default void onFrame(int op, byte[] payload) {}
     }
 
     private MessageListener listener;  // 메시지 전달 대상
 
     private Socket socket;             // 서버 소켓
-    private BufferedReader in;         // 입력 스트림(서버 → 클라이언트)
+    private BufferedReader in;         // 입력 스트림(서버 → 클라이언트) - 수신 스레드 외에는 읽지 않음
     private PrintWriter out;           // 출력 스트림(클라이언트 → 서버)
 
+    private volatile boolean binary = false; // 바이너리 프로토콜 사용 여부
+
     public Network(MessageListener listener) {
         this.listener = listener;      // ClientMain을 listener로 등록
     }
@@ -29,16 +42,19 @@ public class Network {
     public boolean connect(String host, int port) {
         try {
             socket = new Socket(host, port); // 서버 접속
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream())); // 서버 메시지 읽기
-            out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream()), true); // 서버로 전송
+            socket.setTcpNoDelay(true);
+
+            InputStream raw = new BufferedInputStream(socket.getInputStream());
+            in = new BufferedReader(new InputStreamReader(raw, StandardCharsets.UTF_8));
+
+            // 서버로 전송: 한 줄 단위로 모아 텍스트 또는 프레임으로 보냄
+            out = new PrintWriter(new CommandWriter(socket.getOutputStream()), true);
 
             // 서버 메시지를 계속 읽는 스레드
             new Thread(() -> {
                 try {
                     while (true) {
-                        String msg = in.readLine();
-                        if (msg == null) break;  // 서버 종료
-                        listener.onMessage(msg); // ClientMain으로 메시지 전달
+                        if (!readMessage(raw)) break;  // 서버 종료
                     }
                 } catch (Exception e) {
                     System.out.println("서버 연결 종료");
@@ -52,6 +68,67 @@ public class Network {
         }
     }
 
+    // 메시지 1개 읽어서 리스너에 전달 (스트림 끝이면 false)
+    private boolean readMessage(InputStream raw) throws IOException {
+
+        int first = raw.read();
+        if (first < 0) return false;
+
+        // 바이너리 프레임
+        if (BinaryProtocol.isFrameStart(first)) {
+            int len = readVarint(raw);
+            if (len > BinaryProtocol.MAX_FRAME) throw new IOException("프레임이 너무 김: " + len);
+            byte[] payload = raw.readNBytes(len);
+            if (payload.length < len) return false;
+
+            if (first == BinaryProtocol.TEXT) {
+                String msg = new String(payload, StandardCharsets.UTF_8);
+                if (msg.equals("PING")) send("PONG");
+                else listener.onMessage(msg);
+            } else {
+                listener.onFrame(first, payload);
+            }
+            return true;
+        }
+
+        // 텍스트 한 줄
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b = first;
+        while (b >= 0 && b != '\n') {
+            line.write(b);
+            b = raw.read();
+        }
+
+        String msg = line.toString(StandardCharsets.UTF_8).trim();
+
+        if (msg.startsWith("NICKOK") && !"text".equals(System.getProperty("omok.proto"))) {
+            send(BinaryProtocol.HELLO);  // 바이너리 프로토콜 요청
+        }
+        if (msg.equals(BinaryProtocol.HELLO_OK)) {
+            binary = true;               // 이후 송신은 프레임으로
+            return true;
+        }
+        if (msg.equals("PING")) {
+            send("PONG");
+            return b >= 0;
+        }
+
+        listener.onMessage(msg);
+        return b >= 0;
+    }
+
+    private static int readVarint(InputStream raw) throws IOException {
+        int v = 0, shift = 0, b;
+        do {
+            b = raw.read();
+            if (b < 0) throw new EOFException();
+            v |= (b & 0x7F) << shift;
+            shift += 7;
+            if (shift > 21 && (b & 0x80) != 0) throw new IOException("프레임 길이 varint가 너무 김");
+        } while ((b & 0x80) != 0);
+        return v;
+    }
+
     // 서버로 메시지 전송
     public void send(String msg) {
         out.println(msg);
@@ -61,4 +138,49 @@ public class Network {
     public Socket getSocket() { return socket; }
     public BufferedReader getIn() { return in; }
     public PrintWriter getOut() { return out; }
+
+
+    // ------------------------------------------
+    // PrintWriter 아래에서 한 줄씩 모아
+    // 텍스트 모드면 그대로, 바이너리 모드면 프레임으로 변환해 전송
+    // (UI 코드는 기존처럼 out.println("PLACE 3 4")만 호출하면 됨)
+    // ------------------------------------------
+    private class CommandWriter extends Writer {
+
+        private final OutputStream os;
+        private final StringBuilder line = new StringBuilder();
+
+        CommandWriter(OutputStream os) {
+            this.os = os;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++) {
+                char ch = cbuf[i];
+                if (ch == '\r') continue;
+                if (ch != '\n') {
+                    line.append(ch);
+                    continue;
+                }
+
+                String msg = line.toString();
+                line.setLength(0);
+
+                os.write(binary
+                        ? BinaryProtocol.commandFrame(msg)
+                        : (msg + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            os.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            os.close();
+        }
+    }
 }
@@ -7,8 +7,11 @@ import java.awt.event.MouseListener;
 import java.io.BufferedReader;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import Client.ui.ChancePanel;
 import Client.ui.LifePanel;
+import Common.BinaryProtocol;
 
 public class OmokClient extends JFrame implements Network.MessageListener {
 
@@ -38,6 +41,8 @@ public class OmokClient extends JFrame implements Network.MessageListener {
 
     private boolean isMyTurn = false; // 현재 턴 여부
     private boolean showAll = false;  // 힌트 사용 여부
+    private int[] hintCells = new int[0];   // 서버 힌트: 추천 수 (r*SIZE+c, 좋은 순)
+    private int[] threatCells = new int[0]; // 서버 힌트: 막아야 할 상대 위협 칸
 
     private int lastRowB = -1, lastColB = -1; // 최근 놓인 흑돌
     private int lastRowW = -1, lastColW = -1; // 최근 놓인 백돌
@@ -79,17 +84,7 @@ public class OmokClient extends JFrame implements Network.MessageListener {
         initPoints(); // 돌 좌표 계산
         initUI();     // UI 구성
 
-        // 서버 메시지 수신 스레드
-        new Thread(() -> {
-            try {
-                String msg;
-                while ((msg = in.readLine()) != null) {
-                    receiveMessage(msg.trim());
-                }
-            } catch (Exception ex) {
-                ex.printStackTrace();
-            }
-        }).start();
+        // 서버 메시지는 Network 수신 스레드 → ClientMain → onMessage/onFrame 으로 전달됨
 
         pack();
         setLocationRelativeTo(null);
@@ -100,6 +95,59 @@ public class OmokClient extends JFrame implements Network.MessageListener {
         receiveMessage(msg);
     }
 
+    // 바이너리 프레임 처리 (문자열 파싱 없이 바로 적용)
+    @Override
+    public void onFrame(int op, byte[] p) {
+        switch (op) {
+            case BinaryProtocol.TURN:
+                applyTurn((char) p[0], new String(p, 1, p.length - 1, StandardCharsets.UTF_8));
+                break;
+            case BinaryProtocol.MOVE:
+                applyMove(BinaryProtocol.row(p[0] & 0xFF), BinaryProtocol.col(p[0] & 0xFF), String.valueOf((char) p[1]));
+                break;
+            case BinaryProtocol.BAN:
+                applyBan(BinaryProtocol.row(p[0] & 0xFF), BinaryProtocol.col(p[0] & 0xFF));
+                break;
+            case BinaryProtocol.BAN_CLEAR:
+                clearBan();
+                break;
+            case BinaryProtocol.BAN_MAP:
+                // 금수판 전체를 한 번에 덮어쓰고 한 번만 다시 그림
+                BinaryProtocol.readBanMap(p, 0, isBan);
+                repaint();
+                break;
+            case BinaryProtocol.BAN_DIFF:
+                BinaryProtocol.readBanDiff(p, 0, p.length, isBan);
+                repaint();
+                break;
+            case BinaryProtocol.LIFE:
+                applyLife((char) p[0], p[1]);
+                break;
+            case BinaryProtocol.CHANCES:
+                applyChances((char) p[0], p[1]);
+                break;
+            case BinaryProtocol.WIN:
+                showWinner(String.valueOf((char) p[0]));
+                break;
+            case BinaryProtocol.HINT: {
+                int[] cells = new int[p.length - 1];
+                for (int i = 0; i < cells.length; i++) {
+                    int pos = p[1 + i] & 0xFF;
+                    cells[i] = BinaryProtocol.row(pos) * SIZE + BinaryProtocol.col(pos);
+                }
+                applyHint(p[0], cells);
+                break;
+            }
+            case BinaryProtocol.UNDO:
+                applyUndo(BinaryProtocol.row(p[0] & 0xFF), BinaryProtocol.col(p[0] & 0xFF),
+                        BinaryProtocol.row(p[1] & 0xFF), BinaryProtocol.col(p[1] & 0xFF),
+                        String.valueOf((char) p[2]));
+                break;
+            default:
+                System.out.println("Unknown server frame: " + Integer.toHexString(op));
+        }
+    }
+
     // 보드 좌표 계산
     private void initPoints() {
         for (int r = 0; r < SIZE; r++)
@@ -244,79 +292,40 @@ public class OmokClient extends JFrame implements Network.MessageListener {
             case "TURN":
             	// TURN B/W 상대방닉네임
                 if (parts.length >= 2) {
-                    isMyTurn = (parts[1].equals("B") && myColor == 'B') || (parts[1].equals("W") && myColor == 'W');
-                    String turnStr = parts[1].equals("B") ? "흑 턴" : "백 턴";
-                    chancePanel.updateTurn(turnStr);
-                    
-                    // 상대방 닉네임 저장 (서버에서 항상 상대방 닉네임을 보내줌)
-                    if (parts.length >= 3) {
-                        opponentNickname = parts[2];
-                        lifePanel.setOpponentNickname(opponentNickname);
-                    }
+                    applyTurn(parts[1].charAt(0), (parts.length >= 3) ? parts[2] : null);
                 }
                 break;
             case "MOVE":
                 // MOVE r c B/W
-                int r = Integer.parseInt(parts[1]);
-                int c = Integer.parseInt(parts[2]);
-                String color = parts[3];
-                board[r][c] = color;
-                if(color.equals("B")) {
-                	lastRowB = r; lastColB = c;
-                } else {
-                	lastRowW = r; lastColW = c;
-                }
-                // 방금 놓인 돌(color)이 내 색깔과 같으면 -> 내가 둔 것 -> 활성화
-                // 다르면 -> 상대방이 둔 것 -> 비활성화 (이미 턴이 넘어가서 내 이전 수를 무를 수 없음)
-                if (color.equals(String.valueOf(myColor))) {
-                    cancelButton.setEnabled(true);  // 내가 뒀으니 무르기 가능
-                } else {
-                    cancelButton.setEnabled(false); // 상대가 뒀으니 무르기 불가
+                applyMove(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), parts[3]);
+                break;
+            case "HINT": {
+                // HINT 추천수개수 r c r c ... (추천 수 뒤에 위협 칸)
+                int[] cells = new int[(parts.length - 2) / 2];
+                for (int i = 0; i < cells.length; i++) {
+                    cells[i] = Integer.parseInt(parts[2 + i * 2]) * SIZE + Integer.parseInt(parts[3 + i * 2]);
                 }
-                repaint();
+                applyHint(Integer.parseInt(parts[1]), cells);
                 break;
+            }
             case "BAN":
                 // BAN r c
-                int br = Integer.parseInt(parts[1]);
-                int bc = Integer.parseInt(parts[2]);
-                isBan[br][bc] = true;
-                repaint();
+                applyBan(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
                 break;
             case "BAN_CLEAR": // ★ [추가] 금수 초기화 명령 처리
-                for (int i = 0; i < SIZE; i++) {
-                    for (int j = 0; j < SIZE; j++) {
-                        isBan[i][j] = false; // 모든 금수 해제
-                    }
-                }
-                repaint(); // 화면 갱신
+                clearBan();
                 break;
             case "LIFE":
                 // LIFE b/w 횟수
-            	if("B".equals(parts[1])) {
-            		blackLives = Integer.parseInt(parts[2]);
-            	} else {
-            		whiteLives = Integer.parseInt(parts[2]);
-            	}
-                lifePanel.updateLives(blackLives, whiteLives);
+                applyLife(parts[1].charAt(0), Integer.parseInt(parts[2]));
                 break;
             case "CHANCES":
                 // CHANCES b/w 횟수
-            	if("B".equals(parts[1])) {
-            		blackChances = Integer.parseInt(parts[2]);
-            	} else {
-            		whiteChances = Integer.parseInt(parts[2]);
-            	}
-                chancePanel.updateChances(myColor == 'B', blackChances, whiteChances);
+                applyChances(parts[1].charAt(0), Integer.parseInt(parts[2]));
                 break;
             case "WIN":
                 // WIN B/W
-                String winner = parts[1];
-                JOptionPane.showMessageDialog(this, (winner.equals("B") ? "흑 승리!" : "백 승리!"));
-                endPanel.add(reStartButton); // 리셋 버튼 추가
-                endPanel.add(endButton); // 종료 버튼 추가
-                showAll = true;
-                sidePanel.revalidate();   // 레이아웃 재계산
-                repaint();
+                showWinner(parts[1]);
                 break;
             case "RESET":
                 resetLocalBoard();
@@ -358,32 +367,121 @@ public class OmokClient extends JFrame implements Network.MessageListener {
             // 무르기 확정
             case "UNDO":
             	// 프로토콜: UNDO [지울R] [지울C] [이전R] [이전C] [색상]
-            	int ur = Integer.parseInt(parts[1]);
-                int uc = Integer.parseInt(parts[2]);
-                int prevR = Integer.parseInt(parts[3]);
-                int prevC = Integer.parseInt(parts[4]);
-                String ucolor = parts[5];
-
-                // 보드에서 돌 삭제
-                board[ur][uc] = null;
-
-                // 마지막 돌 위치 정보를 "직전 돌" 위치로 갱신
-                if (ucolor.equals("B")) {
-                    lastRowB = prevR;
-                    lastColB = prevC;
-                } else {
-                    lastRowW = prevR;
-                    lastColW = prevC;
-                }
-                // 무르기가 완료되었으므로 버튼 비활성화
-                cancelButton.setEnabled(false);
-                // 화면 다시 그리기
-                repaint();
+                applyUndo(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                        Integer.parseInt(parts[3]), Integer.parseInt(parts[4]), parts[5]);
+                break;
             default:
                 System.out.println("Unknown server msg: " + msg);
         }
     }
 
+    // 턴 변경 (상대방 닉네임은 서버에서 항상 함께 보내줌)
+    private void applyTurn(char turn, String opponent) {
+        isMyTurn = (turn == myColor);
+        chancePanel.updateTurn(turn == 'B' ? "흑 턴" : "백 턴");
+
+        // 상대방 닉네임 저장
+        if (opponent != null) {
+            opponentNickname = opponent;
+            lifePanel.setOpponentNickname(opponentNickname);
+        }
+    }
+
+    // 돌 놓기
+    private void applyMove(int r, int c, String color) {
+        board[r][c] = color;
+        clearHint();
+        if(color.equals("B")) {
+        	lastRowB = r; lastColB = c;
+        } else {
+        	lastRowW = r; lastColW = c;
+        }
+        // 방금 놓인 돌(color)이 내 색깔과 같으면 -> 내가 둔 것 -> 활성화
+        // 다르면 -> 상대방이 둔 것 -> 비활성화 (이미 턴이 넘어가서 내 이전 수를 무를 수 없음)
+        if (color.equals(String.valueOf(myColor))) {
+            cancelButton.setEnabled(true);  // 내가 뒀으니 무르기 가능
+        } else {
+            cancelButton.setEnabled(false); // 상대가 뒀으니 무르기 불가
+        }
+        repaint();
+    }
+
+    // 찬스 힌트 표시 (판이 바뀌면 지움)
+    private void applyHint(int count, int[] cells) {
+        hintCells = Arrays.copyOfRange(cells, 0, count);
+        threatCells = Arrays.copyOfRange(cells, count, cells.length);
+        repaint();
+    }
+
+    private void clearHint() {
+        hintCells = new int[0];
+        threatCells = new int[0];
+    }
+
+    // 금수 표시 추가
+    private void applyBan(int r, int c) {
+        isBan[r][c] = true;
+        repaint();
+    }
+
+    // 금수 초기화
+    private void clearBan() {
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                isBan[i][j] = false; // 모든 금수 해제
+            }
+        }
+        repaint(); // 화면 갱신
+    }
+
+    private void applyLife(char color, int lives) {
+    	if(color == 'B') {
+    		blackLives = lives;
+    	} else {
+    		whiteLives = lives;
+    	}
+        lifePanel.updateLives(blackLives, whiteLives);
+    }
+
+    private void applyChances(char color, int chances) {
+    	if(color == 'B') {
+    		blackChances = chances;
+    	} else {
+    		whiteChances = chances;
+    	}
+        chancePanel.updateChances(myColor == 'B', blackChances, whiteChances);
+    }
+
+    // 승리 알림 + 다시하기/종료하기 버튼 표시
+    private void showWinner(String winner) {
+        JOptionPane.showMessageDialog(this, (winner.equals("B") ? "흑 승리!" : "백 승리!"));
+        endPanel.add(reStartButton); // 리셋 버튼 추가
+        endPanel.add(endButton); // 종료 버튼 추가
+        showAll = true;
+        sidePanel.revalidate();   // 레이아웃 재계산
+        repaint();
+    }
+
+    // 무르기 확정
+    private void applyUndo(int ur, int uc, int prevR, int prevC, String ucolor) {
+        // 보드에서 돌 삭제
+        board[ur][uc] = null;
+        clearHint();
+
+        // 마지막 돌 위치 정보를 "직전 돌" 위치로 갱신
+        if (ucolor.equals("B")) {
+            lastRowB = prevR;
+            lastColB = prevC;
+        } else {
+            lastRowW = prevR;
+            lastColW = prevC;
+        }
+        // 무르기가 완료되었으므로 버튼 비활성화
+        cancelButton.setEnabled(false);
+        // 화면 다시 그리기
+        repaint();
+    }
+
 
     // 게임 리셋 함수
     private void resetLocalBoard() { 
@@ -395,6 +493,7 @@ public class OmokClient extends JFrame implements Network.MessageListener {
         lastRowB = -1; lastColB = -1;
         lastRowW = -1; lastColW = -1;
         showAll = false;
+        clearHint();
         lifePanel.updateLives(blackLives, whiteLives);
         chancePanel.updateChances(myColor == 'B', blackChances, whiteChances);
         cancelButton.setEnabled(false); // 무르기 버튼 비활성화
@@ -472,6 +571,21 @@ public class OmokClient extends JFrame implements Network.MessageListener {
                     }
                 }
             }
+
+            // 찬스 힌트: 추천 수는 초록 원 + 순위, 위협 칸은 빨간 원
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setStroke(new BasicStroke(2f));
+            for (int i = 0; i < threatCells.length; i++) {
+                Point pt = points[threatCells[i] / SIZE][threatCells[i] % SIZE];
+                g2.setColor(Color.RED);
+                g2.drawOval(pt.x - STONE_SIZE / 2, pt.y - STONE_SIZE / 2, STONE_SIZE, STONE_SIZE);
+            }
+            for (int i = 0; i < hintCells.length; i++) {
+                Point pt = points[hintCells[i] / SIZE][hintCells[i] % SIZE];
+                g2.setColor(new Color(0, 160, 0));
+                g2.drawOval(pt.x - STONE_SIZE / 2, pt.y - STONE_SIZE / 2, STONE_SIZE, STONE_SIZE);
+                g2.drawString(String.valueOf(i + 1), pt.x - 3, pt.y + 5);
+            }
         }
 
         @Override
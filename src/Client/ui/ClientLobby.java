@@ -74,7 +74,9 @@ public class ClientLobby extends JFrame implements Network.MessageListener {
         JButton refreshBtn = new JButton("갱신");
         refreshBtn.setBackground(buttonColor);
         refreshBtn.addActionListener(e -> {
-            out.println("ROOMLIST"); // 방 목록 요청
+            // 구독 다시 요청: 피드가 보낸 변경분과 같은 순서로 전체 목록을 다시 받음
+            // (ROOMLIST 응답은 피드보다 늦거나 빠를 수 있어 목록이 어긋남)
+            out.println("ROOMSUB");
             out.flush();
         });
 
@@ -146,9 +148,32 @@ public class ClientLobby extends JFrame implements Network.MessageListener {
             }
         }
 
+        // 방 추가 / 인원 변경: ROOMADD 방이름(인원/2), ROOMUPDATE 방이름(인원/2)
+        else if (msg.startsWith("ROOMADD ") || msg.startsWith("ROOMUPDATE ")) {
+            String entry = msg.substring(msg.indexOf(' ') + 1);
+            int idx = indexOfRoom(entry.split("\\(")[0]);
+
+            if (idx >= 0) roomModel.set(idx, entry);
+            else roomModel.addElement(entry);
+        }
+
+        // 방 삭제: ROOMREMOVE 방이름
+        else if (msg.startsWith("ROOMREMOVE ")) {
+            int idx = indexOfRoom(msg.substring(11));
+            if (idx >= 0) roomModel.remove(idx);
+        }
+
         // 방 생성 완료 알림
         else if (msg.startsWith("ROOMCREATED")) {
             JOptionPane.showMessageDialog(this, "방 생성 완료!");
         }
     }
+
+    // 목록에서 방 이름이 같은 항목 위치 (없으면 -1)
+    private int indexOfRoom(String roomName) {
+        for (int i = 0; i < roomModel.size(); i++) {
+            if (roomModel.get(i).split("\\(")[0].equals(roomName)) return i;
+        }
+        return -1;
+    }
 }
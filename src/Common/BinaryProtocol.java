@@ -0,0 +1,271 @@
+package Common;
+
+import java.nio.charset.StandardCharsets;
+
+/*
+ * BinaryProtocol
+ * ------------------------------------------------------
+ * - 서버/클라이언트가 함께 쓰는 바이너리 프레임 형식
+ *
+ *     [opcode 1바이트][payload 길이 varint][payload]
+ *
+ * - opcode는 항상 최상위 비트가 1 (0x80~0xFF)
+ *   → 텍스트 명령은 ASCII 대문자로 시작하므로 첫 바이트만 보고
+ *     "텍스트 한 줄"인지 "프레임"인지 구분할 수 있다
+ * - 좌표는 1바이트로 압축: (행 << 4) | 열, 없음(-1)은 0xFF
+ * - 협상: NICK 성공 후 클라이언트가 텍스트로 "PROTO BIN" 전송
+ *         서버가 "PROTOOK BIN"으로 답한 뒤부터 서버 → 클라이언트는 프레임,
+ *         클라이언트도 PROTOOK를 받은 뒤부터 프레임 전송
+ * - 자주 오가지 않는 메시지(채팅, 로비, 오류 등)는 TEXT 프레임에 담는다
+ * ------------------------------------------------------
+ */
+
+public final class BinaryProtocol {
+
+    public static final String HELLO = "PROTO BIN";
+    public static final String HELLO_OK = "PROTOOK BIN";
+
+    // 텍스트 한 줄을 그대로 담는 프레임 (양방향)
+    public static final int TEXT = 0x80;
+
+    // 클라이언트 → 서버
+    public static final int PLACE = 0x81;       // [pos]
+    public static final int USECHANCE = 0x82;
+    public static final int RESET = 0x83;
+    public static final int CANCEL = 0x84;
+    public static final int CANCEL_YES = 0x85;
+    public static final int CANCEL_NO = 0x86;
+    public static final int END = 0x87;
+
+    // 서버 → 클라이언트
+    public static final int MOVE = 0x90;        // [pos][color]
+    public static final int TURN = 0x91;        // [color][상대 닉네임 UTF-8]
+    public static final int BAN_CLEAR = 0x92;
+    public static final int BAN = 0x93;         // [pos]
+    public static final int LIFE = 0x94;        // [color][count]
+    public static final int CHANCES = 0x95;     // [color][count]
+    public static final int UNDO = 0x96;        // [pos][prevPos][color]
+    public static final int WIN = 0x97;         // [color]
+    public static final int BAN_MAP = 0x98;     // [225비트 금수 비트맵 29바이트]
+    public static final int BAN_DIFF = 0x99;    // [pos]... 직전 금수판과 달라진 칸들
+    public static final int HINT = 0x9A;        // [추천 수 개수][pos]... + 위협 칸 [pos]...
+
+    // 인자 없는 명령 (opcode ↔ 텍스트 명령어)
+    private static final int[] SIMPLE_OPS = { USECHANCE, RESET, CANCEL, CANCEL_YES, CANCEL_NO, END, BAN_CLEAR };
+    private static final String[] SIMPLE_NAMES = { "USECHANCE", "RESET", "CANCEL", "CANCEL_YES", "CANCEL_NO", "END", "BAN_CLEAR" };
+
+    // 서버 → 클라이언트 프레임 payload 최대 길이
+    // 클라이언트는 이보다 긴 길이가 오면 깨진 스트림으로 보고 연결을 끊음
+    // (클라이언트 → 서버는 MessageDecoder.MAX_LINE)
+    public static final int MAX_FRAME = 64 * 1024;
+
+    // 15x15 = 225칸, 칸 번호 r*15+c 를 하위 비트부터 채움
+    public static final int BOARD_SIZE = 15;
+    public static final int BAN_MAP_BYTES = (BOARD_SIZE * BOARD_SIZE + 7) / 8;
+
+    private BinaryProtocol() {}
+
+
+    // ------------------------------------------
+    // 첫 바이트가 프레임 시작인지 (텍스트 줄이면 false)
+    // ------------------------------------------
+    public static boolean isFrameStart(int b) {
+        return (b & 0x80) != 0;
+    }
+
+    // 좌표 압축 / 해제
+    public static int pack(int r, int c) {
+        return (r < 0 || c < 0) ? 0xFF : (r << 4) | c;
+    }
+
+    public static int row(int pos) { return (pos == 0xFF) ? -1 : pos >>> 4; }
+    public static int col(int pos) { return (pos == 0xFF) ? -1 : pos & 0x0F; }
+
+
+    // ------------------------------------------
+    // 프레임 만들기
+    // ------------------------------------------
+    public static byte[] frame(int op, byte[] payload, int off, int len) {
+
+        int header = 1 + varintSize(len);
+        byte[] out = new byte[header + len];
+
+        out[0] = (byte) op;
+        writeVarint(out, 1, len);
+        System.arraycopy(payload, off, out, header, len);
+
+        return out;
+    }
+
+    public static byte[] frame(int op, int... bytes) {
+
+        byte[] out = new byte[2 + bytes.length];   // payload는 항상 128바이트 미만
+
+        out[0] = (byte) op;
+        out[1] = (byte) bytes.length;
+        for (int i = 0; i < bytes.length; i++) {
+            out[2 + i] = (byte) bytes[i];
+        }
+
+        return out;
+    }
+
+    public static byte[] textFrame(String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        return frame(TEXT, utf8, 0, utf8.length);
+    }
+
+    // 1바이트 헤더 + 문자열이 붙는 프레임 (TURN)
+    public static byte[] frameWithText(int op, int first, String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = new byte[1 + utf8.length];
+
+        payload[0] = (byte) first;
+        System.arraycopy(utf8, 0, payload, 1, utf8.length);
+
+        return frame(op, payload, 0, payload.length);
+    }
+
+
+    // ------------------------------------------
+    // 금수판 비트맵
+    // ------------------------------------------
+    public static byte[] banMap(boolean[][] ban) {
+
+        byte[] bits = new byte[BAN_MAP_BYTES];
+
+        for (int r = 0; r < BOARD_SIZE; r++) {
+            for (int c = 0; c < BOARD_SIZE; c++) {
+                if (ban[r][c]) {
+                    int i = r * BOARD_SIZE + c;
+                    bits[i >>> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+        }
+        return bits;
+    }
+
+    // BAN_MAP payload로 금수판 전체를 덮어씀
+    public static void readBanMap(byte[] p, int off, boolean[][] ban) {
+        for (int r = 0; r < BOARD_SIZE; r++) {
+            for (int c = 0; c < BOARD_SIZE; c++) {
+                int i = r * BOARD_SIZE + c;
+                ban[r][c] = ((p[off + (i >>> 3)] >>> (i & 7)) & 1) != 0;
+            }
+        }
+    }
+
+    // BAN_DIFF payload의 칸들을 뒤집음 (금수 ↔ 해제)
+    public static void readBanDiff(byte[] p, int off, int len, boolean[][] ban) {
+        for (int i = off; i < off + len; i++) {
+            int pos = p[i] & 0xFF;
+            ban[row(pos)][col(pos)] ^= true;
+        }
+    }
+
+
+    // ------------------------------------------
+    // 텍스트 명령 한 줄 → 프레임
+    // (클라이언트가 기존 명령 문자열을 그대로 바이너리로 보낼 때 사용)
+    // ------------------------------------------
+    public static byte[] commandFrame(String line) {
+
+        if (line.startsWith("PLACE ")) {
+            String[] sp = line.split(" ");
+            if (sp.length == 3) {
+                return frame(PLACE, pack(Integer.parseInt(sp[1]), Integer.parseInt(sp[2])));
+            }
+        }
+
+        for (int i = 0; i < SIMPLE_NAMES.length; i++) {
+            if (SIMPLE_NAMES[i].equals(line)) return frame(SIMPLE_OPS[i]);
+        }
+
+        return textFrame(line);
+    }
+
+    // 텍스트 이름 → 인자 없는 명령 opcode (해당 없으면 -1)
+    public static int commandOp(String name) {
+        for (int i = 0; i < SIMPLE_NAMES.length; i++) {
+            if (SIMPLE_NAMES[i].equals(name)) return SIMPLE_OPS[i];
+        }
+        return -1;
+    }
+
+    // 인자 없는 명령의 텍스트 이름 (해당 없으면 null)
+    public static String commandName(int op) {
+        for (int i = 0; i < SIMPLE_OPS.length; i++) {
+            if (SIMPLE_OPS[i] == op) return SIMPLE_NAMES[i];
+        }
+        return null;
+    }
+
+
+    // ------------------------------------------
+    // 프레임 → 같은 의미의 텍스트 한 줄 (로그 출력용)
+    // ------------------------------------------
+    public static String toText(int op, byte[] p, int off, int len) {
+
+        switch (op) {
+            case TEXT:
+                return new String(p, off, len, StandardCharsets.UTF_8);
+            case PLACE:
+                return "PLACE " + row(p[off] & 0xFF) + " " + col(p[off] & 0xFF);
+            case MOVE:
+                return "MOVE " + row(p[off] & 0xFF) + " " + col(p[off] & 0xFF) + " " + (char) p[off + 1];
+            case TURN:
+                return "TURN " + (char) p[off] + " " + new String(p, off + 1, len - 1, StandardCharsets.UTF_8);
+            case BAN:
+                return "BAN " + row(p[off] & 0xFF) + " " + col(p[off] & 0xFF);
+            case LIFE:
+                return "LIFE " + (char) p[off] + " " + p[off + 1];
+            case CHANCES:
+                return "CHANCES " + (char) p[off] + " " + p[off + 1];
+            case UNDO:
+                return "UNDO " + row(p[off] & 0xFF) + " " + col(p[off] & 0xFF) + " "
+                        + row(p[off + 1] & 0xFF) + " " + col(p[off + 1] & 0xFF) + " " + (char) p[off + 2];
+            case WIN:
+                return "WIN " + (char) p[off];
+            case HINT: {
+                StringBuilder sb = new StringBuilder("HINT ").append(p[off]);
+                for (int i = off + 1; i < off + len; i++) {
+                    sb.append(' ').append(row(p[i] & 0xFF)).append(' ').append(col(p[i] & 0xFF));
+                }
+                return sb.toString();
+            }
+            case BAN_MAP:
+            case BAN_DIFF: {
+                boolean[][] ban = new boolean[BOARD_SIZE][BOARD_SIZE];
+                if (op == BAN_MAP) readBanMap(p, off, ban);
+                else readBanDiff(p, off, len, ban);
+
+                StringBuilder sb = new StringBuilder(op == BAN_MAP ? "BAN_MAP" : "BAN_DIFF");
+                for (int r = 0; r < BOARD_SIZE; r++)
+                    for (int c = 0; c < BOARD_SIZE; c++)
+                        if (ban[r][c]) sb.append(' ').append(r).append(',').append(c);
+                return sb.toString();
+            }
+            default:
+                String name = commandName(op);
+                return (name != null) ? name : "OP_" + Integer.toHexString(op);
+        }
+    }
+
+
+    // ------------------------------------------
+    // varint (7비트씩, 하위부터)
+    // ------------------------------------------
+    public static int varintSize(int v) {
+        int n = 1;
+        while ((v >>>= 7) != 0) n++;
+        return n;
+    }
+
+    private static void writeVarint(byte[] out, int pos, int v) {
+        while ((v & ~0x7F) != 0) {
+            out[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out[pos] = (byte) v;
+    }
+}
@@ -0,0 +1,124 @@
+package Server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/*
+ * AdminServer
+ * ------------------------------------------------------
+ * - 운영용 관리 포트 (127.0.0.1에만 바인딩 → 외부에서 접속 불가)
+ *   -Domok.admin.port=9998  (0이면 사용 안 함, 기본값 0)
+ * - 접속 1개 = 명령 1줄 → 텍스트 응답 후 연결 종료
+ *
+ *     METRICS (또는 빈 줄)   Metrics.dump()
+ *     GET / HTTP/1.x         같은 내용을 HTTP 응답으로 (curl/브라우저용)
+ *     SNAPSHOT [파일]        살아 있는 방 전체를 스냅샷 파일로 저장
+ *
+ * - 요청이 드물어 데몬 스레드 하나가 순서대로 처리
+ * ------------------------------------------------------
+ */
+
+class AdminServer {
+
+    private final ServerSocket serverSocket;
+    private final RoomManager roomManager;
+
+    AdminServer(int port, RoomManager roomManager) throws IOException {
+        this.serverSocket = new ServerSocket(port, 16, InetAddress.getLoopbackAddress());
+        this.roomManager = roomManager;
+    }
+
+    // ------------------------------------------
+    // 접속 대기 시작 (데몬 스레드)
+    // ------------------------------------------
+    void start() {
+        Thread t = new Thread(this::acceptLoop, "admin");
+        t.setDaemon(true);
+        t.start();
+
+        Log.info(Log.SERVER, "[ADMIN] 관리 포트: " + serverSocket.getLocalPort() + " (localhost)");
+    }
+
+    private void acceptLoop() {
+        while (true) {
+            try (Socket s = serverSocket.accept()) {
+                handle(s);
+            } catch (IOException e) {
+                Log.warn(Log.SERVER, "[ADMIN] 요청 처리 오류: " + e);
+            }
+        }
+    }
+
+    private void handle(Socket s) throws IOException {
+
+        s.setSoTimeout(1000);
+
+        String line = "";
+        try {
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            String l = in.readLine();
+            if (l != null) line = l.trim();
+        } catch (SocketTimeoutException e) {
+            // 아무 것도 안 보내면 기본 명령(METRICS)
+        }
+
+        boolean http = line.startsWith("GET ");
+        String body = execute(http ? "METRICS" : line);
+
+        OutputStream out = s.getOutputStream();
+        if (http) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            out.write(("HTTP/1.0 200 OK\r\n"
+                    + "Content-Type: text/plain; charset=utf-8\r\n"
+                    + "Content-Length: " + bytes.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(bytes);
+        } else {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        out.flush();
+    }
+
+    // ------------------------------------------
+    // 관리 명령 실행
+    // ------------------------------------------
+    private String execute(String cmd) {
+
+        if (cmd.isEmpty() || cmd.equalsIgnoreCase("METRICS")) {
+            return Metrics.dump();
+        }
+
+        if (cmd.equalsIgnoreCase("SNAPSHOT") || cmd.regionMatches(true, 0, "SNAPSHOT ", 0, 9)) {
+            String file = (cmd.length() > 9) ? cmd.substring(9).trim()
+                    : System.getProperty("omok.snapshot", "omok.snapshot");
+            return snapshot(Paths.get(file));
+        }
+
+        return "ERROR UNKNOWNCMD\n";
+    }
+
+    private String snapshot(Path path) {
+        long start = System.nanoTime();
+        try {
+            int rooms = Snapshot.write(roomManager.captureRooms(), path);
+            long ms = (System.nanoTime() - start) / 1_000_000;
+
+            Log.info(Log.SERVER, "[SNAPSHOT] " + path + " 방 " + rooms + "개 (" + ms + "ms)");
+            return "SNAPSHOT " + path + " rooms=" + rooms + " bytes=" + Files.size(path) + " ms=" + ms + "\n";
+
+        } catch (IOException e) {
+            Log.warn(Log.SERVER, "[SNAPSHOT] 저장 실패: " + e);
+            return "ERROR SNAPSHOT " + e.getMessage() + "\n";
+        }
+    }
+}
@@ -0,0 +1,529 @@
+package Server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * AiEngine
+ * ------------------------------------------------------
+ * - 컴퓨터 상대의 수 찾기 (AiPlayer), 힌트용 추천 수 / 위협 칸 (AnalysisService)
+ * - 반복 심화 alpha-beta(negamax), 정해진 시간(deadline)이 지나면
+ *   마지막으로 끝까지 본 깊이의 최선수를 돌려줌
+ * - 수 정렬: 돌 주변 2칸 안의 빈 칸을 "위협 점수"로 정렬
+ *     내가 두면 생기는 모양(5목/열린4/4/열린3 ...) + 상대가 두면 생기는 모양
+ *   상대의 5목 자리가 있으면 막는 수만 봄
+ * - 흑은 Room과 같은 금수 판정(Board.isForbidden) 자리를 두지 않음
+ * - Zobrist 해시로 색인하는 치환표(transposition table)
+ *   잠금 없이 여러 스레드가 같이 씀 (key ^ data로 찢어진 항목 걸러냄)
+ * - 뿌리(root) 수들을 ForkJoin으로 나눠 병렬 탐색
+ *   첫 수(이전 깊이 최선수)를 먼저 보고, 나머지는 그 점수를 하한으로 동시에
+ * - 풀은 서버 전체 공용 (-Domok.ai.threads, 기본 CPU 수)
+ * - 탐색 스레드가 인터럽트되면 시간 초과와 같이 중단 (힌트 취소)
+ * ------------------------------------------------------
+ */
+
+final class AiEngine {
+
+    private static final int SIZE = Board.SIZE;
+    private static final int CELLS = SIZE * SIZE;
+
+    static final ForkJoinPool POOL = new ForkJoinPool(
+            Integer.getInteger("omok.ai.threads", Runtime.getRuntime().availableProcessors()));
+
+    private static final int MAX_PLY = 32;
+    private static final int MAX_DEPTH = Math.min(MAX_PLY - 2, Integer.getInteger("omok.ai.depth", 8));
+
+    // 점수
+    private static final int WIN = 10_000_000;
+    private static final int INF = 20_000_000;
+
+    private static final int FIVE = 1_000_000;
+    private static final int OPEN_FOUR = 100_000;
+    private static final int FOUR = 10_000;
+    private static final int OPEN_THREE = 5_000;
+    private static final int THREE = 500;
+    private static final int OPEN_TWO = 200;
+    private static final int TWO = 20;
+    private static final int ONE = 2;
+
+    // 칸별 무작위 값 (색 × 칸) + 백 차례 표시
+    // 힌트는 자기 차례가 아닐 때도 요청하므로 같은 돌 배치라도 둘 차례를 구분
+    private static final long[][] ZOBRIST = new long[3][CELLS];
+    private static final long WHITE_TO_MOVE;
+    static {
+        SplittableRandom rnd = new SplittableRandom(0x0A0C_15L);
+        for (int color = 1; color <= 2; color++)
+            for (int i = 0; i < CELLS; i++) ZOBRIST[color][i] = rnd.nextLong();
+        WHITE_TO_MOVE = rnd.nextLong();
+    }
+
+    // 치환표: 항목 하나 = key(hash ^ data) + data
+    //   data = 점수(32) | 깊이(8) << 32 | 종류(2) << 40 | 수+1(8) << 42
+    private static final int EXACT = 0, LOWER = 1, UPPER = 2;
+    private final long[] ttKeys;
+    private final long[] ttData;
+    private final int ttMask;
+
+    AiEngine(int ttBits) {
+        ttKeys = new long[1 << ttBits];
+        ttData = new long[1 << ttBits];
+        ttMask = (1 << ttBits) - 1;
+    }
+
+    // 시간 초과 → 이번 깊이 탐색 중단
+    private static final class Timeout extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Timeout() { super(null, null, false, false); }
+    }
+    private static final Timeout TIMEOUT = new Timeout();
+
+
+    // ------------------------------------------
+    // 최선수 (cell = r * 15 + c), 둘 곳이 없으면 -1
+    // 호출 스레드가 ForkJoinPool 안이면 뿌리 수를 나눠서 병렬 탐색
+    // ------------------------------------------
+    int bestMove(Board board, int color, long deadline) {
+
+        Search root = new Search(board, deadline, 1);
+        int n = root.generate(0, color, true);
+        if (n == 0) return -1;
+
+        int[] moves = new int[n];
+        System.arraycopy(root.moves[0], 0, moves, 0, n);
+
+        // 이기는 수 / 막아야 하는 수가 하나뿐이면 바로
+        if (root.bestAttack[0] >= FIVE || n == 1) return moves[0];
+
+        int best = moves[0];
+        long hash = hash(board);
+
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            try {
+                int[] result = searchRoot(board, color, hash, depth, moves, deadline);
+                best = result[0];
+                if (result[1] >= WIN - MAX_PLY || result[1] <= -WIN + MAX_PLY) break;   // 승패가 보임
+
+                // 다음 깊이는 최선수부터
+                for (int i = 0; i < moves.length; i++) {
+                    if (moves[i] == best) {
+                        System.arraycopy(moves, 0, moves, 1, i);
+                        moves[0] = best;
+                        break;
+                    }
+                }
+            } catch (RuntimeException e) {
+                // ForkJoin 작업에서 던진 시간 초과는 감싸져 올 수도 있음
+                if (!(e instanceof Timeout) && !(e.getCause() instanceof Timeout)) throw e;
+                break;
+            }
+            if (System.nanoTime() >= deadline) break;
+        }
+        return best;
+    }
+
+    // 첫 수로 하한을 얻고, 나머지 수는 ForkJoin 작업으로 동시에
+    private int[] searchRoot(Board board, int color, long hash, int depth, int[] moves, long deadline) {
+
+        Search first = new Search(board, deadline, depth + 1);
+        int alpha0 = -first.play(moves[0], color, hash, depth, -INF, INF);
+
+        AtomicInteger alpha = new AtomicInteger(alpha0);
+        List<RootTask> tasks = new ArrayList<>();
+        for (int i = 1; i < moves.length; i++) {
+            tasks.add(new RootTask(board, moves[i], color, hash, depth, alpha, deadline));
+        }
+
+        if (ForkJoinTask.getPool() == POOL) ForkJoinTask.invokeAll(tasks);
+        else for (RootTask t : tasks) t.invoke();
+
+        int best = moves[0], bestScore = alpha0;
+        for (RootTask t : tasks) {
+            int score = t.getRawResult();
+            if (score > bestScore) {
+                bestScore = score;
+                best = t.move;
+            }
+        }
+        return new int[] { best, bestScore };
+    }
+
+    // 직렬화할 일은 없음 (ForkJoinTask가 Serializable이라 형식만 맞춤)
+    private final class RootTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        final transient Board board;
+        final int move, color, depth;
+        final long hash, deadline;
+        final AtomicInteger alpha;
+
+        RootTask(Board board, int move, int color, long hash, int depth, AtomicInteger alpha, long deadline) {
+            this.board = board;
+            this.move = move;
+            this.color = color;
+            this.hash = hash;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected Integer compute() {
+            // 지금까지 찾은 최선 점수를 하한으로: 그보다 못하면 빨리 잘림
+            int a = alpha.get();
+            int score = -new Search(board, deadline, depth + 1).play(move, color, hash, depth, -INF, -a);
+            alpha.accumulateAndGet(score, Math::max);
+            return score;
+        }
+    }
+
+    // ------------------------------------------
+    // 힌트: color가 둘 만한 수 좋은 순으로 최대 count개
+    // 뿌리 수마다 전체 창으로 점수를 내서 순위를 매김 (호출 스레드에서 순차)
+    // 한 깊이도 못 끝내면 후보 정렬 순서 그대로
+    // ------------------------------------------
+    int[] topMoves(Board board, int color, int count, long deadline) {
+
+        Search root = new Search(board, deadline, 1);
+        int n = root.generate(0, color, true);
+
+        int[] moves = new int[n];
+        int[] scores = new int[n];
+        System.arraycopy(root.moves[0], 0, moves, 0, n);
+
+        long hash = hash(board);
+
+        for (int depth = 1; depth <= MAX_DEPTH && n > 1; depth++) {
+            try {
+                Search search = new Search(board, deadline, depth + 1);
+                for (int i = 0; i < n; i++) {
+                    scores[i] = -search.play(moves[i], color, hash, depth, -INF, INF);
+                }
+            } catch (RuntimeException e) {
+                if (!(e instanceof Timeout)) throw e;
+                break;
+            }
+
+            // 점수 내림차순 (삽입 정렬, 같은 점수면 이전 순서 유지)
+            for (int i = 1; i < n; i++) {
+                int m = moves[i], s = scores[i];
+                int j = i - 1;
+                while (j >= 0 && scores[j] < s) {
+                    moves[j + 1] = moves[j];
+                    scores[j + 1] = scores[j];
+                    j--;
+                }
+                moves[j + 1] = m;
+                scores[j + 1] = s;
+            }
+            if (scores[0] >= WIN - MAX_PLY) break;   // 이기는 수가 보임
+        }
+
+        int[] top = new int[Math.min(count, n)];
+        System.arraycopy(moves, 0, top, 0, top.length);
+        return top;
+    }
+
+    // ------------------------------------------
+    // 위협: color 차례에서 상대가 두면 5목 또는 열린 4가 되는 칸 (지금 막아야 할 곳)
+    // ------------------------------------------
+    int[] threats(Board board, int color) {
+
+        Search s = new Search(board, Long.MAX_VALUE, 1);
+        int opp = 3 - color;
+
+        int[] out = new int[CELLS];
+        int n = 0;
+
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                if (!board.isEmpty(r, c)) continue;
+                if (opp == Board.BLACK && board.isForbidden(r, c)) continue;
+                if (s.cellScore(opp, r, c) >= OPEN_FOUR) out[n++] = r * SIZE + c;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    static long hash(Board board) {
+        long h = 0;
+        for (int i = 0; i < CELLS; i++) {
+            int s = board.get(i / SIZE, i % SIZE);
+            if (s != Board.EMPTY) h ^= ZOBRIST[s][i];
+        }
+        return h;
+    }
+
+
+    // ------------------------------------------
+    // 탐색 하나 (스레드별 작업판 + 깊이별 수 버퍼)
+    // ------------------------------------------
+    private final class Search {
+
+        final Board board = new Board();
+        final long deadline;
+        int nodes;
+
+        // 깊이(ply)별 후보 수 / 공격 점수 / 평가용 요약
+        final int[][] moves;
+        final int[][] attack;
+        final int[] bestAttack;
+        final int[] bestDefend;
+        final long[] sumScore;
+
+        // generate() 작업 버퍼
+        final int[] occ = new int[SIZE];
+        final int[] key = new int[CELLS];
+
+        Search(Board from, long deadline, int plies) {
+            board.copyFrom(from);
+            this.deadline = deadline;
+            moves = new int[plies][CELLS];
+            attack = new int[plies][CELLS];
+            bestAttack = new int[plies];
+            bestDefend = new int[plies];
+            sumScore = new long[plies];
+        }
+
+        // color가 move에 두고 상대 차례로 넘긴 국면의 점수 (상대 기준)
+        int play(int move, int color, long hash, int depth, int alpha, int beta) {
+            int r = move / SIZE, c = move % SIZE;
+            board.set(r, c, color);
+            try {
+                if (board.isWin(r, c, color)) return -(WIN - 1);
+                return negamax(depth - 1, 1, alpha, beta, 3 - color, hash ^ ZOBRIST[color][move]);
+            } finally {
+                board.clear(r, c);
+            }
+        }
+
+        int negamax(int depth, int ply, int alpha, int beta, int color, long hash) {
+
+            if ((++nodes & 1023) == 0
+                    && (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted())) throw TIMEOUT;
+
+            // 치환표
+            long key = (color == Board.WHITE) ? hash ^ WHITE_TO_MOVE : hash;
+            int slot = (int) key & ttMask;
+            long data = ttData[slot];
+            int ttMove = -1;
+            if ((ttKeys[slot] ^ data) == key && data != 0) {
+                int score = (int) data;
+                int d = (int) (data >>> 32) & 0xFF;
+                int flag = (int) (data >>> 40) & 3;
+                ttMove = (int) (data >>> 42) - 1;
+                if (d >= depth) {
+                    if (flag == EXACT) return score;
+                    if (flag == LOWER && score >= beta) return score;
+                    if (flag == UPPER && score <= alpha) return score;
+                }
+            }
+
+            int n = generate(ply, color, false);
+            if (n == 0) return 0;   // 판이 꽉 참
+
+            int[] list = moves[ply];
+            if (bestAttack[ply] >= FIVE) return WIN - ply;   // 두면 바로 5목
+
+            if (depth <= 0 || ply >= moves.length - 1) return evaluate(ply);
+
+            // 치환표의 최선수를 맨 앞으로
+            if (ttMove >= 0) {
+                for (int i = 1; i < n; i++) {
+                    if (list[i] == ttMove) {
+                        System.arraycopy(list, 0, list, 1, i);
+                        list[0] = ttMove;
+                        break;
+                    }
+                }
+            }
+
+            int alpha0 = alpha;
+            int best = -INF, bestMove = list[0];
+
+            for (int i = 0; i < n; i++) {
+                int m = list[i];
+                int r = m / SIZE, c = m % SIZE;
+
+                board.set(r, c, color);
+                int score = -negamax(depth - 1, ply + 1, -beta, -alpha, 3 - color, hash ^ ZOBRIST[color][m]);
+                board.clear(r, c);
+
+                if (score > best) {
+                    best = score;
+                    bestMove = m;
+                }
+                if (score > alpha) alpha = score;
+                if (alpha >= beta) break;
+            }
+
+            int flag = (best <= alpha0) ? UPPER : (best >= beta) ? LOWER : EXACT;
+            long entry = (best & 0xFFFFFFFFL) | ((long) depth << 32) | ((long) flag << 40) | ((long) (bestMove + 1) << 42);
+            ttData[slot] = entry;
+            ttKeys[slot] = key ^ entry;
+
+            return best;
+        }
+
+        // 둘 차례 기준 정적 평가: 내 최고 위협 - 상대 최고 위협 (+ 전체 합 조금)
+        private int evaluate(int ply) {
+            int mine = bestAttack[ply], theirs = bestDefend[ply];
+            if (mine >= OPEN_FOUR && theirs < FIVE) return WIN / 2;   // 막을 수 없는 4
+            return mine - theirs * 3 / 4 + (int) (sumScore[ply] / 16);
+        }
+
+
+        // ------------------------------------------
+        // 후보 수 생성 + 정렬 (ply 버퍼에 저장, 개수 반환)
+        // ------------------------------------------
+        int generate(int ply, int color, boolean root) {
+
+            int opp = 3 - color;
+
+            // 돌이 있는 칸 / 돌에서 2칸 안
+            boolean any = false;
+            for (int r = 0; r < SIZE; r++) {
+                occ[r] = board.lane(Board.BLACK, Board.HORIZONTAL, r, 0) | board.lane(Board.WHITE, Board.HORIZONTAL, r, 0);
+                if (occ[r] != 0) any = true;
+            }
+
+            int[] list = moves[ply];
+            int[] att = attack[ply];
+
+            if (!any) {
+                list[0] = (SIZE / 2) * SIZE + SIZE / 2;
+                att[0] = 0;
+                bestAttack[ply] = bestDefend[ply] = 0;
+                sumScore[ply] = 0;
+                return 1;
+            }
+
+            int n = 0;
+            int maxAttack = 0, maxDefend = 0;
+            long sum = 0;
+
+            for (int r = 0; r < SIZE; r++) {
+                int near = 0;
+                for (int dr = -2; dr <= 2; dr++) {
+                    int rr = r + dr;
+                    if (rr < 0 || rr >= SIZE) continue;
+                    int o = occ[rr];
+                    near |= o | (o << 1) | (o << 2) | (o >>> 1) | (o >>> 2);
+                }
+                near &= ~occ[r] & 0x7FFF;
+
+                while (near != 0) {
+                    int c = Integer.numberOfTrailingZeros(near);
+                    near &= near - 1;
+
+                    if (color == Board.BLACK && board.isForbidden(r, c)) continue;
+
+                    int a = cellScore(color, r, c);
+                    int d = cellScore(opp, r, c);
+                    // 흑 금수 자리는 백이 막을 필요가 없음
+                    if (opp == Board.BLACK && d >= FOUR && board.isForbidden(r, c)) d = 0;
+
+                    list[n] = r * SIZE + c;
+                    att[n] = a;
+                    key[n] = a + d * 9 / 10;
+                    n++;
+
+                    if (a > maxAttack) maxAttack = a;
+                    if (d > maxDefend) maxDefend = d;
+                    sum += a - d;
+                }
+            }
+
+            bestAttack[ply] = maxAttack;
+            bestDefend[ply] = maxDefend;
+            sumScore[ply] = sum;
+
+            // 점수 내림차순 (삽입 정렬, 후보는 많아야 수십 개)
+            for (int i = 1; i < n; i++) {
+                int m = list[i], a = att[i], k = key[i];
+                int j = i - 1;
+                while (j >= 0 && key[j] < k) {
+                    list[j + 1] = list[j];
+                    att[j + 1] = att[j];
+                    key[j + 1] = key[j];
+                    j--;
+                }
+                list[j + 1] = m;
+                att[j + 1] = a;
+                key[j + 1] = k;
+            }
+
+            // 바로 5목이 되는 수는 막는 점수가 더 큰 칸보다도 앞으로
+            if (maxAttack >= FIVE && att[0] < FIVE) {
+                for (int i = 1; i < n; i++) {
+                    if (att[i] >= FIVE) {
+                        int m = list[i], a = att[i];
+                        System.arraycopy(list, 0, list, 1, i);
+                        System.arraycopy(att, 0, att, 1, i);
+                        list[0] = m;
+                        att[0] = a;
+                        break;
+                    }
+                }
+            }
+
+            // 상대가 다음에 5목을 만들 수 있고 나는 못 만들면 막는 수만
+            if (maxDefend >= FIVE && maxAttack < FIVE) {
+                int k = 0;
+                for (int i = 0; i < n; i++) {
+                    if (key[i] - att[i] >= FIVE * 9 / 10) {
+                        list[k] = list[i];
+                        att[k] = att[i];
+                        k++;
+                    }
+                }
+                if (k > 0) return k;
+            }
+
+            return Math.min(n, root ? 24 : 12);
+        }
+
+        // (r, c)에 color를 두면 생기는 모양 점수 (네 방향 합)
+        private int cellScore(int color, int r, int c) {
+            int s = 0;
+            for (int dir = 0; dir < 4; dir++) s += lineScore(color, dir, r, c);
+            return s;
+        }
+
+        private int lineScore(int color, int dir, int r, int c) {
+
+            int pos = Board.bitIndex(dir, r, c);
+            int valid = Board.validMask(dir, r, c);
+            int mine = board.lane(color, dir, r, c) | (1 << pos);
+            int empty = valid & ~(board.lane(Board.BLACK, dir, r, c) | board.lane(Board.WHITE, dir, r, c)) & ~(1 << pos);
+
+            // pos를 지나는 연속 돌
+            int up = Integer.numberOfTrailingZeros(~(mine >>> pos));
+            int down = Integer.numberOfLeadingZeros(~(mine << (31 - pos)));
+            int len = up + down - 1;
+            if (len >= 5) return FIVE;
+
+            int hi = pos + up, lo = pos - down;
+            boolean openHi = hi < 16 && ((empty >>> hi) & 1) != 0;
+            boolean openLo = lo >= 0 && ((empty >>> lo) & 1) != 0;
+
+            // 한 칸 띄고 이어지는 돌 (X_XX 모양)
+            int extHi = openHi ? Integer.numberOfTrailingZeros(~(mine >>> (hi + 1))) : 0;
+            int extLo = (openLo && lo > 0) ? Integer.numberOfLeadingZeros(~(mine << (32 - lo))) : 0;
+            int split = Math.max(len + extHi, len + extLo);
+
+            if (len == 4) return (openHi && openLo) ? OPEN_FOUR : (openHi || openLo) ? FOUR : 0;
+            if (split >= 4) return FOUR;   // 가운데 한 칸만 채우면 5목
+            if (len == 3) return (openHi && openLo) ? OPEN_THREE : (openHi || openLo) ? THREE : 0;
+            if (split == 3 && openHi && openLo) return OPEN_THREE / 2;
+            if (len == 2) return (openHi && openLo) ? OPEN_TWO : (openHi || openLo) ? TWO : 0;
+            return (openHi && openLo) ? ONE : 0;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package Server;
+
+import Common.BinaryProtocol;
+
+/*
+ * AiPlayer
+ * ------------------------------------------------------
+ * - 방에 앉는 컴퓨터 상대 (PLAYAI [B|W], 기본은 AI가 백)
+ * - 연결 없는 Player: 방이 보내는 메시지를 송신 큐 대신 직접 받아
+ *   MOVE/UNDO/RESET으로 자기 판을 따라 두고,
+ *   자기 TURN이 오면 AiEngine 풀에서 수를 찾아 PLACE로 되돌려 보냄
+ *   → Room 입장에서는 사람 플레이어와 구별되지 않음 (같은 규칙/금수 적용)
+ * - 한 수 시간 -Domok.ai.moveMs (기본 300ms), 치환표 크기 -Domok.ai.ttBits (기본 15)
+ * - 무르기 요청은 거절, 생각 중에 판이 바뀌면(RESET 등) 그 결과는 버림
+ * ------------------------------------------------------
+ */
+
+final class AiPlayer extends Player {
+
+    static final String NICKNAME = "AI";
+
+    private static final long MOVE_NS = Long.getLong("omok.ai.moveMs", 300) * 1_000_000L;
+    private static final int TT_BITS = Integer.getInteger("omok.ai.ttBits", 15);
+
+    private static final Metrics.Histogram THINK = Metrics.histogram("latency.aiMove");
+
+    private final AiEngine engine = new AiEngine(TT_BITS);
+
+    // 방에서 받은 수로 따라 두는 판 (방 우편함 스레드에서만 변경)
+    private final Board board = new Board();
+    private int stone = Board.EMPTY;
+    private boolean over;
+
+    // 판이 바뀔 때마다 증가 → 늦게 끝난 탐색 결과는 버림 (우편함 스레드에서만 읽고 씀)
+    private int generation;
+
+    AiPlayer() {
+        super(NICKNAME);
+    }
+
+    @Override
+    boolean isBot() {
+        return true;
+    }
+
+    // 방이 보내는 메시지 (우편함 스레드)
+    // 게임 메시지는 opcode와 payload로, 나머지(TEXT)는 한 줄 그대로 비교
+    @Override
+    void send(Packet packet) {
+        switch (packet.op()) {
+            case BinaryProtocol.MOVE: {
+                int pos = packet.arg(0);
+                board.set(BinaryProtocol.row(pos), BinaryProtocol.col(pos), stoneOf(packet.arg(1)));
+                generation++;
+                break;
+            }
+
+            case BinaryProtocol.UNDO: {
+                int pos = packet.arg(0);
+                board.clear(BinaryProtocol.row(pos), BinaryProtocol.col(pos));
+                generation++;
+                break;
+            }
+
+            case BinaryProtocol.WIN:
+                over = true;
+                generation++;
+                break;
+
+            case BinaryProtocol.TURN:
+                if (!over && stone != Board.EMPTY && stoneOf(packet.arg(0)) == stone) think();
+                break;
+
+            case BinaryProtocol.TEXT:
+                onText(packet.toString());
+                break;
+        }
+    }
+
+    private void onText(String line) {
+        switch (line) {
+            case "START B":
+            case "START W":
+                stone = stoneOf(line.charAt(6));
+                over = false;
+                break;
+
+            case "RESET":
+                board.clearAll();
+                over = false;
+                generation++;
+                break;
+
+            case "END":
+                over = true;
+                generation++;
+                break;
+
+            case "CANCEL_ASK":
+                getRoom().handleCommand(this, BinaryProtocol.CANCEL_NO, -1, -1);
+                break;
+        }
+    }
+
+    private static int stoneOf(int color) {
+        return (color == 'B') ? Board.BLACK : Board.WHITE;
+    }
+
+    @Override
+    public void flush() {
+        // 보낼 곳 없음
+    }
+
+    // 지금 판을 복사해 공용 풀에서 탐색
+    private void think() {
+        int gen = generation;
+        Board snapshot = new Board();
+        snapshot.copyFrom(board);
+        int color = stone;
+        Room room = getRoom();
+
+        long start = System.nanoTime();
+        long deadline = start + MOVE_NS;
+
+        AiEngine.POOL.execute(() -> {
+            int cell;
+            try {
+                cell = engine.bestMove(snapshot, color, deadline);
+            } catch (RuntimeException e) {
+                Log.error(Log.ROOM, "[AI] 탐색 오류", e);
+                return;
+            }
+            THINK.recordSince(start);
+
+            // 탐색 중에 판이 바뀌었는지는 우편함 안에서 확인
+            if (cell >= 0) {
+                room.placeIf(this, cell / Board.SIZE, cell % Board.SIZE, () -> gen == generation);
+            }
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package Server;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/*
+ * AnalysisService
+ * ------------------------------------------------------
+ * - 찬스(USECHANCE) 힌트 계산: 추천 수 상위 몇 개 + 상대의 당장 위협 칸
+ *     → 요청한 사람에게만 HINT 전송 (Packet.hint)
+ * - 입출력 / 방 우편함 스레드와 분리된 전용 풀 (analysis-N)
+ *     스레드 수 -Domok.hint.threads (기본 2), 대기열 -Domok.hint.queue (기본 64)
+ *     대기열이 차면 바로 거절(null) → 방은 ERROR HintBusy로 답함
+ *   → 분석이 몰려도 다른 방의 착수 처리는 멈추지 않음
+ * - 요청마다 마감 -Domok.hint.ms (기본 500ms), 그때까지 본 깊이의 결과
+ * - 반환된 Future를 cancel(true)하면 탐색이 중단되고 결과를 보내지 않음
+ *   (Room이 판이 바뀔 때 취소)
+ * - 지표: latency.hint, hint.rejected
+ * ------------------------------------------------------
+ */
+
+final class AnalysisService {
+
+    private static final int TOP_MOVES = 3;
+
+    private static final Metrics.Histogram LATENCY = Metrics.histogram("latency.hint");
+    private static final Metrics.Counter REJECTED = Metrics.counter("hint.rejected");
+
+    private final ThreadPoolExecutor pool;
+    private final long budgetNs;
+
+    // 분석 스레드끼리 치환표 공유
+    private final AiEngine engine = new AiEngine(16);
+
+    AnalysisService(int threads, int queue, long budgetMs) {
+        pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue), Mailbox.daemonThreads("analysis"));
+        budgetNs = budgetMs * 1_000_000L;
+
+        Metrics.gauge("hint.queued", () -> pool.getQueue().size());
+    }
+
+
+    // ------------------------------------------
+    // color 기준 힌트 요청 (board는 호출한 쪽이 떠 준 복사본)
+    // 결과는 분석 스레드에서 done으로, 거절되면 null 반환
+    // ------------------------------------------
+    Future<?> submit(Board board, int color, Consumer<Packet> done) {
+
+        long start = System.nanoTime();
+
+        try {
+            return pool.submit(() -> {
+                // 대기열에서 기다린 시간도 마감에 포함
+                long deadline = start + budgetNs;
+
+                int[] moves = engine.topMoves(board, color, TOP_MOVES, deadline);
+                int[] threats = engine.threats(board, color);
+
+                if (Thread.currentThread().isInterrupted()) return;   // 취소됨
+
+                LATENCY.recordSince(start);
+                done.accept(Packet.hint(moves, threats));
+            });
+        } catch (RejectedExecutionException e) {
+            REJECTED.increment();
+            return null;
+        }
+    }
+}
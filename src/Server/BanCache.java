@@ -0,0 +1,143 @@
+package Server;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/*
+ * BanCache
+ * ------------------------------------------------------
+ * - 모든 방(과 AI 탐색)이 함께 쓰는 금수 판정 결과 캐시
+ * - 금수 여부는 (r, c)를 지나는 네 방향 11칸 창(Board.window)만으로 정해지므로
+ *   창 코드 4개(20bit × 4)를 그대로 키로 사용 → 해시 충돌로 틀릴 일 없음
+ *   방향 순서는 결과와 무관하므로 코드를 정렬해서 키를 만든다
+ * - 4-way 집합 연관, 집합마다 CLOCK 교체 (참조 bit 하나씩)
+ *   집합 수 2^bits (-Domok.banCache.bits, 12 → 16384개)
+ * - 기본은 꺼짐(0): 금수 판정 자체가 이미 패턴표 조회 4번이라
+ *   캐시 조회(정렬 + 해시 + 비교)가 더 빠르지 않음 (RulesBenchmark isForbidden.cache)
+ *   판정이 무거워지면(예: 렌주 예외 규칙) 켜서 쓴다
+ * - 동시성: 집합마다 seqlock 도장
+ *     읽기  도장 확인 → 항목 읽기 → 도장 재확인 (바뀌었으면 그냥 미스)
+ *     쓰기  도장을 CAS로 홀수로 만든 쪽만 기록, 실패하면 넣지 않고 넘어감
+ *   → 잠금 대기 없음, 찢어진 항목을 읽지 않음
+ * - 지표: banCache.hits / banCache.misses / banCache.hitPct
+ * ------------------------------------------------------
+ */
+
+final class BanCache {
+
+    static final BanCache SHARED = new BanCache(Integer.getInteger("omok.banCache.bits", 0));
+
+    private static final int WAYS = 4;
+
+    private static final int CODE_MASK = (1 << 20) - 1;
+    private static final long VALID = 1L << 20;
+    private static final long FORBIDDEN = 1L << 21;
+
+    private static final Metrics.Counter HITS = Metrics.counter("banCache.hits");
+    private static final Metrics.Counter MISSES = Metrics.counter("banCache.misses");
+
+    static {
+        Metrics.gauge("banCache.hitPct", () -> {
+            long hits = HITS.get();
+            long total = hits + MISSES.get();
+            return (total > 0) ? hits * 100 / total : 0;
+        });
+    }
+
+    private final int setMask;
+
+    // 항목 하나 = long 2개
+    //   high: 창 0 | 창 1 << 20 | 창 2 << 40
+    //   low : 창 3 | VALID | FORBIDDEN
+    private final long[] entries;
+
+    // CLOCK 참조 bit (경쟁 쓰기 허용, 교체 순서 힌트일 뿐)
+    private final byte[] referenced;
+    private final byte[] hands;
+
+    // 집합별 seqlock (짝수 = 안정, 홀수 = 기록 중)
+    private final AtomicIntegerArray stamps;
+
+    BanCache(int bits) {
+        int sets = (bits > 0) ? 1 << bits : 0;
+
+        setMask = sets - 1;
+        entries = new long[sets * WAYS * 2];
+        referenced = new byte[sets * WAYS];
+        hands = new byte[sets];
+        stamps = new AtomicIntegerArray(sets);
+    }
+
+
+    // ------------------------------------------
+    // 조회 (없으면 패턴표로 판정 후 저장)
+    // 인자는 Board.window() 네 방향 코드
+    // ------------------------------------------
+    boolean isForbidden(int w0, int w1, int w2, int w3) {
+
+        if (setMask < 0) return LinePatterns.forbidden(w0, w1, w2, w3);
+
+        // 방향 순서 무시: 정렬 네트워크로 오름차순
+        int t;
+        if (w0 > w1) { t = w0; w0 = w1; w1 = t; }
+        if (w2 > w3) { t = w2; w2 = w3; w3 = t; }
+        if (w0 > w2) { t = w0; w0 = w2; w2 = t; }
+        if (w1 > w3) { t = w1; w1 = w3; w3 = t; }
+        if (w1 > w2) { t = w1; w1 = w2; w2 = t; }
+
+        long high = w0 | ((long) w1 << 20) | ((long) w2 << 40);
+        int set = hash(high, w3) & setMask;
+        int base = set * WAYS;
+
+        int stamp = stamps.get(set);
+        if ((stamp & 1) == 0) {
+            for (int way = 0; way < WAYS; way++) {
+                int i = (base + way) * 2;
+                long low = entries[i + 1];
+
+                if (entries[i] != high || (low & (VALID | CODE_MASK)) != (VALID | w3)) continue;
+
+                VarHandle.loadLoadFence();
+                if (stamps.get(set) != stamp) break;
+
+                if (referenced[base + way] == 0) referenced[base + way] = 1;
+                HITS.increment();
+                return (low & FORBIDDEN) != 0;
+            }
+        }
+
+        MISSES.increment();
+        boolean forbidden = LinePatterns.forbidden(w0, w1, w2, w3);
+        store(set, high, w3 | VALID | (forbidden ? FORBIDDEN : 0));
+        return forbidden;
+    }
+
+    // 기록 중인 쓰기가 있으면 포기 (캐시이므로 다음 미스 때 다시 넣음)
+    private void store(int set, long high, long low) {
+
+        int stamp = stamps.get(set);
+        if ((stamp & 1) != 0 || !stamps.compareAndSet(set, stamp, stamp + 1)) return;
+
+        int base = set * WAYS;
+
+        // CLOCK: 참조 bit가 꺼진 칸이 나올 때까지 bit를 끄며 바늘을 돌림
+        int hand = hands[set];
+        while (referenced[base + hand] != 0) {
+            referenced[base + hand] = 0;
+            hand = (hand + 1) & (WAYS - 1);
+        }
+
+        int i = (base + hand) * 2;
+        entries[i] = high;
+        entries[i + 1] = low;
+        referenced[base + hand] = 1;
+        hands[set] = (byte) ((hand + 1) & (WAYS - 1));
+
+        stamps.set(set, stamp + 2);
+    }
+
+    private static int hash(long high, int low) {
+        long h = (high ^ ((long) low << 44) ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) ^ (int) h;
+    }
+}
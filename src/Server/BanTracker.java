@@ -0,0 +1,81 @@
+package Server;
+
+/*
+ * BanTracker
+ * ------------------------------------------------------
+ * - 흑의 금수판(isBan)을 착수/무르기 주변만 다시 판정해서 유지
+ * - 돌이 놓이거나 빠진 칸의 4방향 ±5칸을 "다시 볼 칸"으로 쌓아 두고
+ *   update()에서 그 칸들만 Board.isForbidden()으로 판정
+ * - 언제 update()할지(흑 차례일 때만)는 Room이 정한다
+ * ------------------------------------------------------
+ */
+
+final class BanTracker {
+
+    private static final int SIZE = Board.SIZE;
+
+    private static final int[][] DIRS = {{1,0},{0,1},{1,1},{1,-1}};
+
+    private final boolean[][] isBan = new boolean[SIZE][SIZE];
+
+    // 금수 재판정이 필요한 칸들 (중복 없이)
+    private final boolean[][] dirty = new boolean[SIZE][SIZE];
+    private final int[] dirtyCells = new int[SIZE * SIZE];
+    private int dirtyCount = 0;
+
+    boolean isBan(int r, int c) {
+        return isBan[r][c];
+    }
+
+    // 현재 금수판 (복사본 아님, 읽기 전용으로 사용)
+    boolean[][] map() {
+        return isBan;
+    }
+
+    // ------------------------------------------
+    // (r, c)에 돌이 놓이거나 빠지면 금수가 바뀔 수 있는 칸:
+    // 4방향 직선 위 ±5칸 (판정에 쓰는 11칸 창 안)
+    // 6목도 5칸 안쪽이 모두 흑돌이면 이미 6목이므로 그 밖은 영향 없음
+    // ------------------------------------------
+    void markDirty(int r, int c) {
+
+        for (int[] dir : DIRS) {
+            for (int k = -5; k <= 5; k++) {
+                int nr = r + dir[0] * k;
+                int nc = c + dir[1] * k;
+
+                if (nr < 0 || nr >= SIZE || nc < 0 || nc >= SIZE) continue;
+                if (dirty[nr][nc]) continue;
+
+                dirty[nr][nc] = true;
+                dirtyCells[dirtyCount++] = nr * SIZE + nc;
+            }
+        }
+    }
+
+    // 판 전체를 다시 판정 (게임 시작 / RESET)
+    void markAll() {
+        dirtyCount = 0;
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                dirty[r][c] = true;
+                dirtyCells[dirtyCount++] = r * SIZE + c;
+            }
+        }
+    }
+
+    // ------------------------------------------
+    // 쌓인 칸들만 다시 판정
+    // ------------------------------------------
+    void update(Board board) {
+
+        for (int i = 0; i < dirtyCount; i++) {
+            int r = dirtyCells[i] / SIZE;
+            int c = dirtyCells[i] % SIZE;
+
+            dirty[r][c] = false;
+            isBan[r][c] = board.isEmpty(r, c) && board.isForbidden(r, c);
+        }
+        dirtyCount = 0;
+    }
+}
@@ -0,0 +1,194 @@
+package Server;
+
+import java.util.Arrays;
+
+/*
+ * Board
+ * ------------------------------------------------------
+ * - 15x15 오목판 비트보드 (흑/백 따로)
+ * - 한 줄(최대 15칸)을 16비트 lane 하나에, long 하나에 lane 4개
+ * - 같은 돌을 4가지 배치로 함께 저장해서
+ *   어느 방향이든 (r, c)를 지나는 한 줄을 shift/mask 한 번으로 꺼낸다
+ *
+ *     세로  : lane = c,          bit = r
+ *     가로  : lane = r,          bit = c
+ *     ↘대각 : lane = r - c + 14, bit = c
+ *     ↙대각 : lane = r + c,      bit = c
+ *
+ * - lane 96개 = long 24개 × 2색 → 판 하나가 384바이트
+ * ------------------------------------------------------
+ */
+
+final class Board {
+
+    static final int SIZE = 15;
+
+    static final int EMPTY = 0;
+    static final int BLACK = 1;
+    static final int WHITE = 2;
+
+    // 방향 (Room의 {1,0},{0,1},{1,1},{1,-1} 순서)
+    static final int VERTICAL = 0;
+    static final int HORIZONTAL = 1;
+    static final int DIAGONAL = 2;
+    static final int ANTI_DIAGONAL = 3;
+
+    private static final int COL_BASE = 0;
+    private static final int ROW_BASE = 16;
+    private static final int DIAG_BASE = 32;
+    private static final int ANTI_BASE = 64;
+    private static final int LANES = 96;
+
+    // lane마다 실제 판 위에 있는 bit (대각선은 짧음)
+    private static final int[] VALID = new int[LANES];
+
+    static {
+        for (int i = 0; i < SIZE; i++) {
+            VALID[COL_BASE + i] = (1 << SIZE) - 1;
+            VALID[ROW_BASE + i] = (1 << SIZE) - 1;
+        }
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                VALID[DIAG_BASE + r - c + SIZE - 1] |= 1 << c;
+                VALID[ANTI_BASE + r + c] |= 1 << c;
+            }
+        }
+    }
+
+    private final long[] black = new long[LANES / 4];
+    private final long[] white = new long[LANES / 4];
+
+
+    // ------------------------------------------
+    // 돌 놓기 / 빼기 / 읽기
+    // ------------------------------------------
+    void set(int r, int c, int color) {
+        long[] words = (color == BLACK) ? black : white;
+        for (int dir = 0; dir < 4; dir++) {
+            int lane = laneIndex(dir, r, c);
+            words[lane >>> 2] |= 1L << (((lane & 3) << 4) + bitIndex(dir, r, c));
+        }
+    }
+
+    void clear(int r, int c) {
+        for (int dir = 0; dir < 4; dir++) {
+            int lane = laneIndex(dir, r, c);
+            long mask = ~(1L << (((lane & 3) << 4) + bitIndex(dir, r, c)));
+            black[lane >>> 2] &= mask;
+            white[lane >>> 2] &= mask;
+        }
+    }
+
+    void clearAll() {
+        Arrays.fill(black, 0L);
+        Arrays.fill(white, 0L);
+    }
+
+    // 다른 판 내용을 그대로 복사 (AI 탐색 스레드별 작업판)
+    void copyFrom(Board other) {
+        System.arraycopy(other.black, 0, black, 0, black.length);
+        System.arraycopy(other.white, 0, white, 0, white.length);
+    }
+
+    int get(int r, int c) {
+        if (((lane(BLACK, HORIZONTAL, r, c) >>> c) & 1) != 0) return BLACK;
+        if (((lane(WHITE, HORIZONTAL, r, c) >>> c) & 1) != 0) return WHITE;
+        return EMPTY;
+    }
+
+    boolean isEmpty(int r, int c) {
+        return get(r, c) == EMPTY;
+    }
+
+
+    // ------------------------------------------
+    // (r, c)를 지나는 dir 방향 한 줄
+    // ------------------------------------------
+    int lane(int color, int dir, int r, int c) {
+        int lane = laneIndex(dir, r, c);
+        long[] words = (color == BLACK) ? black : white;
+        return (int) (words[lane >>> 2] >>> ((lane & 3) << 4)) & 0xFFFF;
+    }
+
+    // 그 줄에서 판 위에 있는 칸들
+    static int validMask(int dir, int r, int c) {
+        return VALID[laneIndex(dir, r, c)];
+    }
+
+    // 그 줄에서 (r, c)의 bit 위치
+    static int bitIndex(int dir, int r, int c) {
+        return (dir == VERTICAL) ? r : c;
+    }
+
+    // (r + dr*k, c + dc*k)로 k가 1 늘 때 bit 위치 변화
+    static int step(int dir) {
+        return (dir == ANTI_DIAGONAL) ? -1 : 1;
+    }
+
+    private static int laneIndex(int dir, int r, int c) {
+        switch (dir) {
+            case VERTICAL:   return COL_BASE + c;
+            case HORIZONTAL: return ROW_BASE + r;
+            case DIAGONAL:   return DIAG_BASE + r - c + SIZE - 1;
+            default:         return ANTI_BASE + r + c;
+        }
+    }
+
+
+    // ------------------------------------------
+    // (r, c) 가운데 ±5칸 창 → LinePatterns 코드
+    // 가운데 칸은 빼고 10칸, 판 밖은 흑/백 bit 둘 다 1
+    // (↙대각은 bit 순서가 반대라 창이 거꾸로 읽히지만 패턴표가 좌우 대칭)
+    // ------------------------------------------
+    int window(int dir, int r, int c) {
+
+        int pos = bitIndex(dir, r, c);
+        int edge = ~(validMask(dir, r, c) << 5 >>> pos) & 0x7FF;
+
+        int b = ((lane(BLACK, dir, r, c) << 5 >>> pos) & 0x7FF) | edge;
+        int w = ((lane(WHITE, dir, r, c) << 5 >>> pos) & 0x7FF) | edge;
+
+        return squeeze(b) | (squeeze(w) << LinePatterns.CELLS);
+    }
+
+    // 11bit에서 가운데(bit 5)를 빼고 10bit로
+    private static int squeeze(int x) {
+        return (x & 0x1F) | ((x >>> 6) << 5);
+    }
+
+
+    // ------------------------------------------
+    // (r, c)를 지나는 color 돌의 연속 개수 (양쪽 합, (r, c) 포함)
+    // (r, c)에 color 돌이 없으면 -1 (기존 count + count - 1 과 같음)
+    // ------------------------------------------
+    int run(int color, int dir, int r, int c) {
+        int x = lane(color, dir, r, c);
+        int pos = bitIndex(dir, r, c);
+
+        int up = Integer.numberOfTrailingZeros(~(x >>> pos));
+        int down = Integer.numberOfLeadingZeros(~(x << (31 - pos)));
+
+        return up + down - 1;
+    }
+
+
+    // ------------------------------------------
+    // 규칙 판정
+    // ------------------------------------------
+    // (r, c)에 흑을 두면 금수인지 (6목 / 33 / 44)
+    // 방향마다 11칸 창을 코드로 만들어 패턴표 조회
+    // (BanCache를 켜면 방끼리 공유하는 캐시에서 먼저 찾음)
+    boolean isForbidden(int r, int c) {
+        return BanCache.SHARED.isForbidden(
+                window(VERTICAL, r, c), window(HORIZONTAL, r, c),
+                window(DIAGONAL, r, c), window(ANTI_DIAGONAL, r, c));
+    }
+
+    // (r, c)에 놓인 color 돌로 5목 이상인지
+    boolean isWin(int r, int c, int color) {
+        return run(color, VERTICAL, r, c) >= 5
+                || run(color, HORIZONTAL, r, c) >= 5
+                || run(color, DIAGONAL, r, c) >= 5
+                || run(color, ANTI_DIAGONAL, r, c) >= 5;
+    }
+}
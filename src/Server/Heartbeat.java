@@ -0,0 +1,103 @@
+package Server;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Heartbeat
+ * ------------------------------------------------------
+ * - FIN 없이 사라진 클라이언트 정리 (세 모드 공통)
+ * - 스레드 하나(heartbeat)가 모든 세션의 마지막 수신 시각을 주기적으로 확인
+ *     interval 넘게 조용함 → PING 전송 (클라이언트는 PONG, 다른 메시지여도 됨)
+ *     timeout 넘게 조용함  → 연결 종료 → onDisconnect에서 방/대기열 정리
+ *   -Domok.heartbeat.sec (기본 15, 0이면 끔) / -Domok.idle.sec (기본 45)
+ * - PING은 PROTO를 협상했거나 PONG을 한 번이라도 보낸 세션에만
+ *   예전 텍스트 클라이언트는 PING을 모르므로 보내지 않고,
+ *   훨씬 긴 유휴 한도로만 정리 -Domok.idle.legacySec (기본 7200, 0이면 끔)
+ * - 클라이언트가 먼저 PING을 보내면 서버가 PONG으로 답함 (Player.onMessage)
+ * - 지표: heartbeat.pings, sessions.reaped, sessions.tracked
+ * ------------------------------------------------------
+ */
+
+final class Heartbeat {
+
+    private static final Packet PING = Packet.text("PING");
+
+    private static final Metrics.Counter PINGS = Metrics.counter("heartbeat.pings");
+    private static final Metrics.Counter REAPED = Metrics.counter("sessions.reaped");
+
+    private final long intervalNs;
+    private final long timeoutNs;
+    private final long legacyTimeoutNs;
+
+    private final Set<Player> sessions = ConcurrentHashMap.newKeySet();
+
+    Heartbeat(long intervalSec, long timeoutSec, long legacyTimeoutSec) {
+        this.intervalNs = TimeUnit.SECONDS.toNanos(intervalSec);
+        this.timeoutNs = TimeUnit.SECONDS.toNanos(Math.max(timeoutSec, intervalSec));
+        this.legacyTimeoutNs = (legacyTimeoutSec > 0)
+                ? Math.max(TimeUnit.SECONDS.toNanos(legacyTimeoutSec), timeoutNs)
+                : Long.MAX_VALUE;
+
+        Metrics.gauge("sessions.tracked", sessions::size);
+    }
+
+    // 확인 주기: interval의 절반 (PING이 늦어도 interval * 1.5 안에 나감)
+    void start() {
+        if (intervalNs <= 0) return;
+
+        long period = Math.max(100, TimeUnit.NANOSECONDS.toMillis(intervalNs) / 2);
+        ScheduledExecutorService timer =
+                Executors.newSingleThreadScheduledExecutor(Mailbox.daemonThreads("heartbeat"));
+        timer.scheduleWithFixedDelay(this::check, period, period, TimeUnit.MILLISECONDS);
+
+        Log.info(Log.SERVER, "[SERVER] 하트비트 " + TimeUnit.NANOSECONDS.toSeconds(intervalNs)
+                + "초, 유휴 종료 " + TimeUnit.NANOSECONDS.toSeconds(timeoutNs) + "초");
+    }
+
+    void register(Player p) {
+        sessions.add(p);
+    }
+
+    void unregister(Player p) {
+        sessions.remove(p);
+    }
+
+
+    // ------------------------------------------
+    // 주기 확인 (heartbeat 스레드)
+    // ------------------------------------------
+    private void check() {
+
+        long now = System.nanoTime();
+
+        for (Player p : sessions) {
+            try {
+                long idle = now - p.lastActive();
+
+                if (!p.answersPing()) {
+                    // PING을 모르는 클라이언트: 오래 조용할 때만 정리
+                    if (idle >= legacyTimeoutNs) reap(p);
+                } else if (idle >= timeoutNs) {
+                    reap(p);
+                } else if (idle >= intervalNs && now - p.lastPing >= intervalNs) {
+                    PINGS.increment();
+                    p.lastPing = now;
+                    p.ping(PING);   // 이 스레드를 막지 않음 (Player.flush)
+                }
+            } catch (RuntimeException e) {
+                Log.warn(Log.SERVER, "[SERVER] 하트비트 오류: " + e);
+            }
+        }
+    }
+
+    private void reap(Player p) {
+        REAPED.increment();
+        Log.info(Log.PLAYER, "[Player] 응답 없음, 연결 종료: " + p.getNickname());
+        sessions.remove(p);
+        p.close();
+    }
+}
@@ -0,0 +1,380 @@
+package Server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Journal
+ * ------------------------------------------------------
+ * - 방 상태 변화를 파일 끝에 이어 쓰는 저널 (서버가 죽어도 게임 복구)
+ *   -Domok.journal=omok.journal   (없으면 사용 안 함)
+ *   -Domok.journal.syncMs=100     디스크 반영(force) 주기
+ *
+ * - 레코드는 모두 16바이트 고정 크기
+ *     [0..3] 방 id  [4] 종류  [5..8] 인자 a b c d
+ *   방 이름/닉네임처럼 문자열이 붙는 레코드는 뒤에 TEXT 레코드가
+ *   이어진다 (TEXT는 [5..15]에 11바이트씩, 길이는 머리 레코드 [14..15])
+ *
+ * - 파일은 4MB 구간씩 mmap 해서 메모리에 쓰기만 함
+ *   · 쓸 자리는 AtomicLong 하나로 예약 → 방끼리 잠금 없이 동시에 기록
+ *   · 종류 바이트를 마지막에 써서, 쓰다 만 레코드는 재생 때 0으로 보여 건너뜀
+ *   · 프로세스가 죽어도 페이지 캐시는 남으므로 기록은 보존되고,
+ *     OS 장애 대비 force()는 journal-sync 스레드가 주기마다 모아서 한 번
+ *     (착수마다 fsync 하지 않음 = group commit)
+ *
+ * - 시작 시 기존 파일을 재생해 살아 있는 방들의 RoomState를 만들고,
+ *   그 상태만 담은 새 파일로 교체(압축)한 뒤 이어서 기록
+ *   (스냅샷에서 복원하는 경우에는 재생 대신 스냅샷 상태로 압축)
+ * ------------------------------------------------------
+ */
+
+final class Journal {
+
+    static final int RECORD = 16;
+    private static final int SEGMENT = 1 << 22;      // RECORD의 배수 → 레코드가 구간에 걸치지 않음
+    private static final int TEXT_BYTES = 11;
+
+    // 레코드 종류 (0 = 아직 안 쓴 자리)
+    static final byte OPEN = 1;      // 방 생성 + 방 이름
+    static final byte SEAT = 2;      // a=자리 + 닉네임
+    static final byte LEAVE = 3;     // a=자리
+    static final byte START = 4;
+    static final byte PLACE = 5;     // a=r b=c c=색 d=5목 여부
+    static final byte UNDO = 6;
+    static final byte LIFE = 7;      // a=색 b=남은 생명
+    static final byte CHANCE = 8;    // a=색 b=남은 찬스
+    static final byte RESET = 9;
+    static final byte END = 10;      // 방 정리됨
+    static final byte STATE = 11;    // a=턴 b=종료 여부 (압축 파일 전용)
+    static final byte TEXT = 12;
+
+    // 저널을 쓰지 않을 때 (벤치마크, 옵션 없음)
+    static final Journal DISABLED = new Journal();
+
+    private final Path path;
+    private final FileChannel channel;
+
+    // 다음 레코드 자리 (파일 내 바이트 위치)
+    private final AtomicLong tail = new AtomicLong();
+
+    // 매핑된 구간들 (늘릴 때만 잠금, 읽기는 volatile 배열)
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+    // 디스크에 반영된 위치 (journal-sync 스레드만 사용)
+    private long synced;
+
+    private final Object syncLock = new Object();
+
+    private volatile boolean failed;
+
+    // 시작 시 재생해서 얻은 살아 있는 방들
+    private final List<RoomState> recovered;
+
+    private static final Metrics.Counter RECORDS = Metrics.counter("journal.records");
+    private static final Metrics.Histogram FORCE = Metrics.histogram("latency.journalForce");
+
+    private Journal() {
+        this.path = null;
+        this.channel = null;
+        this.recovered = List.of();
+    }
+
+    private Journal(Path path, FileChannel channel, List<RoomState> recovered) {
+        this.path = path;
+        this.channel = channel;
+        this.recovered = recovered;
+    }
+
+
+    // ------------------------------------------
+    // 열기: 기존 파일 재생 → 압축 파일로 교체 → 동기화 스레드 시작
+    // restored가 있으면(스냅샷 복원) 기존 파일 대신 그 상태로 시작
+    // ------------------------------------------
+    static Journal open(String file, Collection<RoomState> restored) throws IOException {
+
+        if (file == null || file.isEmpty()) return DISABLED;
+
+        Path path = Paths.get(file);
+        Collection<RoomState> states = (restored != null) ? restored
+                : Files.exists(path) ? replay(path) : List.of();
+
+        // 살아 있는 방 상태만 새 파일에 쓰고 원자적으로 바꿔치기
+        // (중간에 죽어도 원래 파일은 그대로)
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        Journal j = new Journal(path, ch, new ArrayList<>(states));
+        for (RoomState s : states) j.write(s);
+        j.sync();
+
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        j.startSync(Long.getLong("omok.journal.syncMs", 100));
+
+        Log.info(Log.SERVER, "[JOURNAL] " + path + " 복구된 방 " + states.size() + "개");
+        return j;
+    }
+
+    List<RoomState> recovered() {
+        return recovered;
+    }
+
+    boolean isEnabled() {
+        return channel != null;
+    }
+
+    private void startSync(long syncMs) {
+
+        Metrics.gauge("journal.bytes", tail::get);
+
+        Thread t = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(syncMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                sync();
+            }
+        }, "journal-sync");
+        t.setDaemon(true);
+        t.start();
+
+        // 정상 종료 시 남은 기록 반영
+        Runtime.getRuntime().addShutdownHook(new Thread(this::sync, "journal-flush"));
+    }
+
+
+    // ------------------------------------------
+    // 기록 (방 우편함 스레드에서 호출, 메모리 쓰기만)
+    // ------------------------------------------
+    void open(int room, String name)                { text(room, OPEN, 0, name); }
+    void seat(int room, int seat, String nickname)  { text(room, SEAT, seat, nickname); }
+    void leave(int room, int seat)                  { append(room, LEAVE, seat, 0, 0, 0); }
+    void start(int room)                            { append(room, START, 0, 0, 0, 0); }
+    void undo(int room)                             { append(room, UNDO, 0, 0, 0, 0); }
+    void life(int room, char color, int left)       { append(room, LIFE, color, left, 0, 0); }
+    void chance(int room, char color, int left)     { append(room, CHANCE, color, left, 0, 0); }
+    void reset(int room)                            { append(room, RESET, 0, 0, 0, 0); }
+    void end(int room)                              { append(room, END, 0, 0, 0, 0); }
+
+    void place(int room, int r, int c, char color, boolean win) {
+        append(room, PLACE, r, c, color, win ? 1 : 0);
+    }
+
+    // 압축: 상태 하나를 처음부터 다시 만드는 레코드들
+    private void write(RoomState s) {
+        open(s.id, s.name);
+        for (int i = 0; i < 2; i++) {
+            if (s.seats[i] != null) seat(s.id, i, s.seats[i]);
+        }
+        if (s.started) start(s.id);
+        for (int m : s.moves) {
+            place(s.id, RoomState.row(m), RoomState.col(m), (RoomState.stone(m) == Board.BLACK) ? 'B' : 'W', false);
+        }
+        life(s.id, 'B', s.lifeB);
+        life(s.id, 'W', s.lifeW);
+        chance(s.id, 'B', s.chanceB);
+        chance(s.id, 'W', s.chanceW);
+        append(s.id, STATE, s.turn, s.gameOver ? 1 : 0, 0, 0);
+    }
+
+    private void append(int room, byte type, int a, int b, int c, int d) {
+
+        if (channel == null || failed) return;
+
+        long pos = tail.getAndAdd(RECORD);
+        try {
+            MappedByteBuffer seg = segment(pos);
+            int i = (int) (pos % SEGMENT);
+            seg.putInt(i, room);
+            seg.put(i + 5, (byte) a);
+            seg.put(i + 6, (byte) b);
+            seg.put(i + 7, (byte) c);
+            seg.put(i + 8, (byte) d);
+            seg.put(i + 4, type);
+            RECORDS.increment();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // 머리 레코드 + TEXT 레코드들을 연속된 자리에 한 번에 예약
+    // TEXT를 먼저 쓰고 머리를 마지막에 → 머리가 보이면 문자열도 완성된 상태
+    private void text(int room, byte type, int a, String s) {
+
+        if (channel == null || failed) return;
+
+        byte[] bytes = (s != null ? s : "").getBytes(StandardCharsets.UTF_8);
+        int len = Math.min(bytes.length, 0xFFFF);
+        int n = (len + TEXT_BYTES - 1) / TEXT_BYTES;
+
+        long pos = tail.getAndAdd((long) (n + 1) * RECORD);
+        try {
+            for (int k = 0; k < n; k++) {
+                long p = pos + (long) (k + 1) * RECORD;
+                MappedByteBuffer seg = segment(p);
+                int i = (int) (p % SEGMENT);
+                seg.putInt(i, room);
+                int off = k * TEXT_BYTES;
+                for (int x = 0; x < TEXT_BYTES && off + x < len; x++) seg.put(i + 5 + x, bytes[off + x]);
+                seg.put(i + 4, TEXT);
+            }
+
+            MappedByteBuffer seg = segment(pos);
+            int i = (int) (pos % SEGMENT);
+            seg.putInt(i, room);
+            seg.put(i + 5, (byte) a);
+            seg.putShort(i + 14, (short) len);
+            seg.put(i + 4, type);
+            RECORDS.add(n + 1);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private MappedByteBuffer segment(long pos) throws IOException {
+        int index = (int) (pos / SEGMENT);
+        MappedByteBuffer[] s = segments;
+        if (index < s.length && s[index] != null) return s[index];
+        return map(index);
+    }
+
+    // 새 구간 매핑 (파일도 그만큼 늘어남)
+    private synchronized MappedByteBuffer map(int index) throws IOException {
+        MappedByteBuffer[] s = segments;
+        if (index >= s.length) s = Arrays.copyOf(s, Math.max(index + 1, s.length * 2));
+        if (s[index] == null) s[index] = channel.map(FileChannel.MapMode.READ_WRITE, (long) index * SEGMENT, SEGMENT);
+        segments = s;
+        return s[index];
+    }
+
+    // 디스크가 가득 찼을 때 등: 게임은 계속하고 저널만 멈춤
+    private void fail(IOException e) {
+        if (failed) return;
+        failed = true;
+        Log.error(Log.SERVER, "[JOURNAL] 기록 실패, 저널 중지: " + path, e);
+    }
+
+
+    // ------------------------------------------
+    // group commit: 마지막 반영 이후 쓰인 구간을 한 번에 force
+    // 다음 구간은 미리 매핑해서 방 스레드가 매핑을 기다리지 않게 함
+    // ------------------------------------------
+    void sync() {
+        // 매핑(map)과 다른 잠금 → force 중에도 방 스레드는 새 구간을 매핑할 수 있음
+        synchronized (syncLock) {
+            doSync();
+        }
+    }
+
+    private void doSync() {
+
+        if (channel == null || failed) return;
+
+        long end = tail.get();
+        try {
+            if (end > synced) {
+                long start = System.nanoTime();
+                // 예약만 되고 아직 쓰는 중이던 레코드가 있을 수 있어 직전 구간부터
+                for (long p = Math.max(0, synced - RECORD); p < end; p = (p / SEGMENT + 1) * SEGMENT) {
+                    segment(p).force();
+                }
+                synced = end;
+                FORCE.recordSince(start);
+            }
+            segment(end + SEGMENT / 2);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+
+    // ------------------------------------------
+    // 재생: 레코드를 순서대로 읽어 방별 RoomState에 반영
+    // 같은 방의 레코드는 그 방 우편함에서 차례로 예약되므로 순서가 보장됨
+    // ------------------------------------------
+    static Collection<RoomState> replay(Path path) throws IOException {
+
+        Map<Integer, RoomState> rooms = new LinkedHashMap<>();
+
+        // 문자열이 붙은 머리 레코드를 TEXT로 채우는 중
+        byte pendingType = 0;
+        int pendingRoom = 0, pendingA = 0, got = 0;
+        byte[] text = null;
+
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            ByteBuffer buf = ByteBuffer.allocate(RECORD * 4096);
+            while (ch.read(buf) > 0 || buf.position() > 0) {
+                buf.flip();
+
+                while (buf.remaining() >= RECORD) {
+                    int i = buf.position();
+                    int room = buf.getInt(i);
+                    byte type = buf.get(i + 4);
+                    buf.position(i + RECORD);
+
+                    if (type == 0) continue;
+
+                    if (type == TEXT) {
+                        if (pendingType == 0 || room != pendingRoom) continue;
+                        for (int x = 0; x < TEXT_BYTES && got < text.length; x++) text[got++] = buf.get(i + 5 + x);
+                    } else {
+                        pendingType = 0;
+                        int a = buf.get(i + 5) & 0xFF;
+
+                        if (type == OPEN || type == SEAT) {
+                            pendingType = type;
+                            pendingRoom = room;
+                            pendingA = a;
+                            text = new byte[buf.getShort(i + 14) & 0xFFFF];
+                            got = 0;
+                        } else if (type == END) {
+                            rooms.remove(room);
+                        } else {
+                            RoomState s = rooms.get(room);
+                            if (s != null) {
+                                s.apply(type, a, buf.get(i + 6), buf.get(i + 7) & 0xFF, buf.get(i + 8) & 0xFF);
+                            }
+                        }
+                    }
+
+                    // 문자열 완성 → 방 생성 / 입장 반영
+                    if (pendingType != 0 && got == text.length) {
+                        String s = new String(text, StandardCharsets.UTF_8);
+                        if (pendingType == OPEN) {
+                            rooms.put(pendingRoom, new RoomState(pendingRoom, s));
+                        } else if (rooms.containsKey(pendingRoom)) {
+                            rooms.get(pendingRoom).seat(pendingA, s);
+                        }
+                        pendingType = 0;
+                    }
+                }
+
+                buf.compact();
+                if (buf.position() > 0 && ch.position() >= ch.size()) break;   // 끝에 남은 조각
+            }
+        }
+
+        // 아무도 앉아 있지 않은 방은 복구하지 않음
+        rooms.values().removeIf(s -> !s.hasSeats());
+        return rooms.values();
+    }
+}
@@ -0,0 +1,135 @@
+package Server;
+
+/*
+ * LinePatterns
+ * ------------------------------------------------------
+ * - 금수 판정용 11칸 창(가운데 ±5칸) → 삼/사/육목 여부 조회표
+ * - 가운데 칸은 항상 "흑을 놓아 본 자리"이므로 빼고 나머지 10칸만 인코딩
+ *
+ *     code = 흑 10bit | 백 10bit << 10
+ *     칸마다 2bit: 빈칸 00 / 흑 01 / 백 10 / 판 밖 11
+ *
+ * - 2^20개 코드를 서버 시작 시 한 번 채워 두고
+ *   이후 방향 하나 판정 = 배열 조회 한 번 (할당 없음)
+ * - 패턴 목록은 기존 문자열 판정과 같음 (창 안 어디서든 나오면 인정)
+ *   목록이 좌우 대칭이라 창을 거꾸로 읽어도 결과가 같다
+ * ------------------------------------------------------
+ */
+
+final class LinePatterns {
+
+    static final int THREE = 1;
+    static final int FOUR = 2;
+    static final int SIX = 4;
+
+    static final int CELLS = 10;
+    static final int CODES = 1 << (CELLS * 2);
+
+    private static final String[] THREES = {
+            ".BBB.",
+            ".BB.B.",
+            ".B.BB.",
+            ".B.B.B.",
+            "..BB.B..",
+            "..B.BB.."
+    };
+
+    private static final String[] FOURS = {
+            ".BBBB.",
+            ".BBB.B.",
+            ".BB.BB.",
+            ".B.BBB."
+    };
+
+    private static final byte[] TABLE = new byte[CODES];
+
+    // 패턴별, 창 안 위치별 [흑이어야 할 칸, 비어 있어야 할 칸] (11bit)
+    private static final int[][] THREE_MASKS = compile(THREES);
+    private static final int[][] FOUR_MASKS = compile(FOURS);
+
+    static {
+        for (int code = 0; code < CODES; code++) {
+            TABLE[code] = (byte) classify(code);
+        }
+    }
+
+    private LinePatterns() {}
+
+
+    // ------------------------------------------
+    // 조회
+    // ------------------------------------------
+    static int flags(int code) {
+        return TABLE[code];
+    }
+
+    // 네 방향 창 코드 → 금수 여부 (6목 / 33 / 44)
+    static boolean forbidden(int w0, int w1, int w2, int w3) {
+
+        int f0 = TABLE[w0], f1 = TABLE[w1], f2 = TABLE[w2], f3 = TABLE[w3];
+
+        if (((f0 | f1 | f2 | f3) & SIX) != 0) return true;    // 6목
+
+        int open3 = (f0 & THREE) + (f1 & THREE) + (f2 & THREE) + (f3 & THREE);
+        int open4 = (f0 & FOUR) + (f1 & FOUR) + (f2 & FOUR) + (f3 & FOUR);
+
+        return open3 >= 2 * THREE || open4 >= 2 * FOUR;         // 33 / 44
+    }
+
+
+    // ------------------------------------------
+    // 표 만들기
+    // ------------------------------------------
+    private static int classify(int code) {
+
+        int b = code & 0x3FF;
+        int w = code >>> CELLS;
+
+        // 가운데(bit 5)에 흑을 끼워 11칸으로
+        int black = (b & 0x1F) | 0x20 | ((b >>> 5) << 6);
+        int white = (w & 0x1F) | ((w >>> 5) << 6);
+
+        int stone = black & ~white;                 // 판 밖(둘 다 1)은 돌 아님
+        int empty = ~(black | white) & 0x7FF;
+
+        int flags = 0;
+
+        // 가운데를 지나는 흑 연속이 6 이상
+        int up = Integer.numberOfTrailingZeros(~(stone >>> 5));
+        int down = Integer.numberOfLeadingZeros(~(stone << 26));
+        if (up + down - 1 > 5) flags |= SIX;
+
+        if (matches(THREE_MASKS, stone, empty)) flags |= THREE;
+        if (matches(FOUR_MASKS, stone, empty)) flags |= FOUR;
+
+        return flags;
+    }
+
+    private static boolean matches(int[][] masks, int stone, int empty) {
+        for (int[] m : masks) {
+            if ((stone & m[0]) == m[0] && (empty & m[1]) == m[1]) return true;
+        }
+        return false;
+    }
+
+    private static int[][] compile(String[] patterns) {
+
+        int n = 0;
+        for (String p : patterns) n += CELLS + 2 - p.length();
+
+        int[][] masks = new int[n][];
+        int i = 0;
+
+        for (String p : patterns) {
+            for (int off = 0; off + p.length() <= CELLS + 1; off++) {
+                int stone = 0, empty = 0;
+                for (int k = 0; k < p.length(); k++) {
+                    if (p.charAt(k) == 'B') stone |= 1 << (off + k);
+                    else empty |= 1 << (off + k);
+                }
+                masks[i++] = new int[] { stone, empty };
+            }
+        }
+        return masks;
+    }
+}
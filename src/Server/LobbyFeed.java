@@ -0,0 +1,141 @@
+package Server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * LobbyFeed
+ * ------------------------------------------------------
+ * - ROOMSUB로 구독한 로비 클라이언트에게 방 목록 변경분만 푸시
+ *     ROOMADD 방이름(인원/2)
+ *     ROOMUPDATE 방이름(인원/2)
+ *     ROOMREMOVE 방이름
+ * - 구독 직후 한 번만 전체 목록(ROOMLIST ...)을 보낸다
+ * - 변경은 방 이름 단위로 모아 두었다가 batchMs마다 한 번에 내보내며,
+ *   구독자마다 flush는 한 번만 수행
+ * - 구독/해지/전송은 전용 우편함에서 순서대로 처리되므로
+ *   전체 목록과 변경분의 순서가 뒤섞이지 않고,
+ *   먼저 온 해지가 나중에 처리되는 구독에 묻히지 않는다
+ * ------------------------------------------------------
+ */
+
+class LobbyFeed {
+
+    private final RoomManager manager;
+    private final Mailbox mailbox;
+    private final ScheduledExecutorService timer;
+    private final long batchMs;
+
+    private final Set<Player> subscribers = ConcurrentHashMap.newKeySet();
+
+    // 다음 전송 때 확인할 방 이름들
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushPending = new AtomicBoolean(false);
+
+    // 구독자들이 현재 알고 있는 방 목록 (방 이름 → 인원) - 우편함 스레드 전용
+    private final Map<String, Integer> published = new LinkedHashMap<>();
+
+    LobbyFeed(RoomManager manager, Mailbox mailbox, ScheduledExecutorService timer, long batchMs) {
+        this.manager = manager;
+        this.mailbox = mailbox;
+        this.timer = timer;
+        this.batchMs = batchMs;
+    }
+
+    // ------------------------------------------
+    // 구독: 현재 목록 전체를 먼저 보내고 이후 변경분 전송
+    // 처리 시점에 이미 방에 들어갔거나 관전 중이면 무시
+    // ------------------------------------------
+    void subscribe(Player p) {
+        mailbox.post(() -> {
+            if (p.getRoom() != null || p.getWatching() != null) return;
+
+            subscribers.add(p);
+            p.send(snapshot());
+            p.flush();
+        });
+    }
+
+    void unsubscribe(Player p) {
+        mailbox.post(() -> subscribers.remove(p));
+    }
+
+    // ------------------------------------------
+    // 방 생성/인원 변화/삭제 시 호출 (아무 스레드)
+    // ------------------------------------------
+    void markDirty(String roomName) {
+        dirty.add(roomName);
+
+        if (flushPending.compareAndSet(false, true)) {
+            timer.schedule(() -> mailbox.post(this::flush), batchMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // ------------------------------------------
+    // 모아 둔 변경분을 구독자 전원에게 전송 (우편함 스레드)
+    // ------------------------------------------
+    private void flush() {
+
+        flushPending.set(false);
+
+        List<String> events = new ArrayList<>();
+
+        for (String name : dirty) {
+            dirty.remove(name);
+
+            Room room = manager.findRoom(name);
+            Integer known = published.get(name);
+
+            if (room == null) {
+                if (known != null) {
+                    published.remove(name);
+                    events.add("ROOMREMOVE " + name);
+                }
+                continue;
+            }
+
+            int cnt = room.getPlayerCount();
+
+            if (known == null) {
+                events.add("ROOMADD " + name + "(" + cnt + "/2)");
+            } else if (known != cnt) {
+                events.add("ROOMUPDATE " + name + "(" + cnt + "/2)");
+            } else {
+                continue;
+            }
+
+            published.put(name, cnt);
+        }
+
+        if (events.isEmpty()) return;
+
+        for (Player p : subscribers) {
+            for (String e : events) {
+                p.send(e);
+            }
+            p.flush();
+        }
+    }
+
+    // 구독 시 보내는 전체 목록 (ROOMLIST 응답과 같은 형식)
+    private String snapshot() {
+
+        if (published.isEmpty())
+            return "ROOMLIST EMPTY";
+
+        StringBuilder sb = new StringBuilder("ROOMLIST");
+
+        for (Map.Entry<String, Integer> e : published.entrySet()) {
+            sb.append(" ").append(e.getKey()).append("(").append(e.getValue()).append("/2)");
+        }
+
+        return sb.toString();
+    }
+}
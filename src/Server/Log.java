@@ -0,0 +1,173 @@
+package Server;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Log
+ * ------------------------------------------------------
+ * - 서버 로그를 콘솔에 직접 쓰지 않고 큐에 넣기만 함
+ *   → 별도 writer 스레드 하나가 모아서 출력
+ *   → 플레이어/방 스레드는 콘솔 I/O 때문에 멈추지 않는다
+ * - 큐가 가득 차면(콘솔이 못 따라옴) 버리고 개수만 센다
+ * - 분류(Category)마다 레벨과 샘플링을 따로 설정
+ *
+ *     -Domok.log.level=info        전체 기본 레벨 (trace/debug/info/warn/error/off)
+ *     -Domok.log.recv=debug        분류별 레벨 (recv, server, room, player)
+ *     -Domok.log.recv.sample=100   분류별로 N건 중 1건만 출력
+ *
+ * - 메시지마다 찍는 RECV 추적은 DEBUG → 기본 설정에서는 꺼짐
+ * ------------------------------------------------------
+ */
+
+final class Log {
+
+    static final int TRACE = 0;
+    static final int DEBUG = 1;
+    static final int INFO = 2;
+    static final int WARN = 3;
+    static final int ERROR = 4;
+    static final int OFF = 5;
+
+    private static final String[] LEVEL_NAMES = { "trace", "debug", "info", "warn", "error", "off" };
+
+    // ------------------------------------------
+    // 분류
+    // ------------------------------------------
+    static final class Category {
+
+        private final int level;
+        private final int sample;
+        private final AtomicLong seq = new AtomicLong();
+
+        private Category(String name) {
+            this.level = parseLevel(System.getProperty("omok.log." + name),
+                    parseLevel(System.getProperty("omok.log.level"), INFO));
+            this.sample = Math.max(1, Integer.getInteger("omok.log." + name + ".sample", 1));
+        }
+
+        // 이 레벨을 지금 출력할지 (샘플링 포함)
+        // 호출 쪽에서 먼저 확인하면 꺼진 로그는 문자열도 만들지 않는다
+        boolean on(int lv) {
+            if (lv < level) return false;
+            return sample == 1 || seq.getAndIncrement() % sample == 0;
+        }
+    }
+
+    static final Category SERVER = new Category("server");
+    static final Category ROOM = new Category("room");
+    static final Category PLAYER = new Category("player");
+    static final Category RECV = new Category("recv");
+
+
+    // ------------------------------------------
+    // 출력 큐 + writer 스레드
+    // ------------------------------------------
+    private static final int MAX_QUEUED = 64 * 1024;
+
+    private static final Queue<String> queue = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger queued = new AtomicInteger();
+    private static final AtomicLong dropped = new AtomicLong();
+
+    private static final Thread writer = new Thread(Log::drainLoop, "log-writer");
+
+    static {
+        writer.setDaemon(true);
+        writer.start();
+
+        // 종료 시 남은 로그 출력
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::drain, "log-flush"));
+    }
+
+    private Log() {}
+
+
+    // ------------------------------------------
+    // 기록
+    // ------------------------------------------
+    static void trace(Category c, String msg) { log(c, TRACE, msg); }
+    static void debug(Category c, String msg) { log(c, DEBUG, msg); }
+    static void info(Category c, String msg)  { log(c, INFO, msg); }
+    static void warn(Category c, String msg)  { log(c, WARN, msg); }
+    static void error(Category c, String msg) { log(c, ERROR, msg); }
+
+    static void error(Category c, String msg, Throwable t) {
+        if (!c.on(ERROR)) return;
+
+        StringWriter sw = new StringWriter();
+        t.printStackTrace(new PrintWriter(sw));
+        enqueue(msg + System.lineSeparator() + sw.toString().stripTrailing());
+    }
+
+    private static void log(Category c, int lv, String msg) {
+        if (c.on(lv)) enqueue(msg);
+    }
+
+    // 이미 on()으로 확인한 뒤 문자열을 만든 경우
+    static void write(String msg) {
+        enqueue(msg);
+    }
+
+    private static void enqueue(String msg) {
+        if (queued.incrementAndGet() > MAX_QUEUED) {
+            queued.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        queue.add(msg);
+        LockSupport.unpark(writer);
+    }
+
+
+    // ------------------------------------------
+    // writer 스레드: 쌓인 줄을 한 번에 출력, 비면 잠듦
+    // ------------------------------------------
+    private static void drainLoop() {
+        while (true) {
+            if (!drain()) {
+                LockSupport.parkNanos(100_000_000L);
+            }
+        }
+    }
+
+    private static synchronized boolean drain() {
+
+        String msg = queue.poll();
+        if (msg == null) return false;
+
+        StringBuilder sb = new StringBuilder(256);
+        int n = 0;
+
+        do {
+            sb.append(msg).append(System.lineSeparator());
+            n++;
+        } while (sb.length() < 64 * 1024 && (msg = queue.poll()) != null);
+
+        queued.addAndGet(-n);
+
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            sb.append("[LOG] 출력이 밀려 ").append(lost).append("줄 버림").append(System.lineSeparator());
+        }
+
+        System.out.print(sb);
+        System.out.flush();
+        return true;
+    }
+
+    private static int parseLevel(String s, int def) {
+        if (s == null) return def;
+
+        String v = s.trim().toLowerCase(Locale.ROOT);
+        for (int i = 0; i < LEVEL_NAMES.length; i++) {
+            if (LEVEL_NAMES[i].equals(v)) return i;
+        }
+        return def;
+    }
+}
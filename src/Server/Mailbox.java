@@ -0,0 +1,93 @@
+package Server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Mailbox
+ * ------------------------------------------------------
+ * - 작업을 순서대로 하나씩만 실행하는 우편함
+ * - 실제 실행은 공용 스레드 풀이 맡고, 한 우편함은 동시에
+ *   최대 한 스레드에서만 비워진다 (잠금 없이 직렬 실행 보장)
+ * - 서로 다른 우편함끼리는 풀의 여러 스레드에서 병렬 실행
+ * ------------------------------------------------------
+ */
+
+class Mailbox {
+
+    // 한 번 실행 기회에 처리할 최대 작업 수 (다른 우편함 굶주림 방지)
+    private static final int BATCH = 64;
+
+    private final String name;
+    private final Executor pool;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    Mailbox(String name, Executor pool) {
+        this.name = name;
+        this.pool = pool;
+    }
+
+    // ------------------------------------------
+    // 작업 추가 (아무 스레드에서나 호출 가능)
+    // ------------------------------------------
+    void post(Runnable task) {
+        queue.add(task);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            pool.execute(this::drain);
+        }
+    }
+
+    // ------------------------------------------
+    // 쌓인 작업을 순서대로 실행 (풀 스레드)
+    // ------------------------------------------
+    private void drain() {
+        try {
+            Runnable task;
+            int n = 0;
+
+            while (n++ < BATCH && (task = queue.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    Log.error(Log.ROOM, "[" + name + "] 처리 오류: " + e, e);
+                }
+            }
+
+        } finally {
+            scheduled.set(false);
+
+            // 실행 중에 새 작업이 들어왔으면 다시 예약
+            if (!queue.isEmpty()) schedule();
+        }
+    }
+
+
+    // ------------------------------------------
+    // 우편함들이 공유할 고정 크기 풀 (데몬 스레드)
+    // ------------------------------------------
+    static ExecutorService newPool(String prefix, int threads) {
+        return Executors.newFixedThreadPool(threads, daemonThreads(prefix));
+    }
+
+    // prefix-0, prefix-1 ... 이름의 데몬 스레드 팩토리
+    static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + seq.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
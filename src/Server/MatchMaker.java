@@ -0,0 +1,136 @@
+package Server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * MatchMaker
+ * ------------------------------------------------------
+ * - QUICKMATCH: 방을 찾거나 만들 필요 없이 대기열에 들어가면
+ *   서버가 두 명씩 짝지어 방을 만들고 바로 게임 시작
+ *     QUICKMATCH   → MATCHWAIT (대기열 등록)
+ *     CANCELMATCH  → MATCHCANCEL
+ *     짝이 정해지면 JOINED quick-N B/W → START ... (일반 게임과 같음)
+ * - 대기열은 잠금 없는 큐, 짝짓기는 matchmaker 스레드 하나가
+ *   batchMs(-Domok.match.batchMs, 기본 100ms)마다 모인 인원을 한 번에 처리
+ * - 취소/연결 종료는 대기 목록(waiting)에서 지우기만 하고,
+ *   큐에 남은 항목은 짝짓기 때 건너뜀
+ *   (waiting에서 먼저 지운 쪽이 이김 → 취소한 사람은 짝지어지지 않음)
+ * ------------------------------------------------------
+ */
+
+class MatchMaker {
+
+    private final RoomManager manager;
+    private final ScheduledExecutorService timer;
+    private final long batchMs;
+
+    // 들어온 순서
+    private final Queue<Player> queue = new ConcurrentLinkedQueue<>();
+
+    // 아직 대기 중인 플레이어 → 대기 시작 시각
+    private final Map<Player, Long> waiting = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean matchPending = new AtomicBoolean(false);
+
+    // 짝이 없어 다음 배치로 넘긴 한 명 (matchmaker 스레드 전용)
+    private Player leftover;
+
+    private static final Metrics.Histogram WAIT = Metrics.histogram("latency.matchWait");
+    private static final Metrics.Counter MATCHES = Metrics.counter("match.made");
+
+    MatchMaker(RoomManager manager, ScheduledExecutorService timer, long batchMs) {
+        this.manager = manager;
+        this.timer = timer;
+        this.batchMs = batchMs;
+
+        Metrics.gauge("match.waiting", waiting::size);
+    }
+
+
+    // ------------------------------------------
+    // 대기열 등록 / 취소 (아무 스레드)
+    // ------------------------------------------
+    boolean enqueue(Player p) {
+
+        if (waiting.putIfAbsent(p, System.nanoTime()) != null) return false;   // 이미 대기 중
+
+        queue.add(p);
+
+        if (matchPending.compareAndSet(false, true)) {
+            timer.schedule(this::match, batchMs, TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    boolean cancel(Player p) {
+        return waiting.remove(p) != null;
+    }
+
+
+    // ------------------------------------------
+    // 짝짓기 (matchmaker 스레드)
+    // ------------------------------------------
+    private void match() {
+
+        matchPending.set(false);
+
+        // 취소 후 다시 들어온 사람은 큐에 두 번 있을 수 있으므로 중복 제거
+        Set<Player> unique = new LinkedHashSet<>();
+        if (leftover != null && waiting.containsKey(leftover)) unique.add(leftover);
+        leftover = null;
+
+        Player p;
+        while ((p = queue.poll()) != null) {
+            if (waiting.containsKey(p)) unique.add(p);
+        }
+
+        List<Player> batch = new ArrayList<>(unique);
+
+        int i = 0;
+        while (i + 1 < batch.size()) {
+            Player black = batch.get(i);
+            Player white = batch.get(i + 1);
+
+            // 대기 목록에서 지우는 데 성공해야 짝 확정 (그 사이 취소됐으면 다음 사람과)
+            if (!waiting.containsKey(white)) {
+                batch.set(i + 1, black);
+                i++;
+                continue;
+            }
+            Long since = waiting.remove(black);
+            if (since == null) {
+                i++;
+                continue;
+            }
+            Long since2 = waiting.remove(white);
+            if (since2 == null) {
+                waiting.put(black, since);
+                batch.set(i + 1, black);
+                i++;
+                continue;
+            }
+
+            WAIT.recordSince(since);
+            WAIT.recordSince(since2);
+            MATCHES.increment();
+
+            manager.openMatchRoom(black, white);
+            i += 2;
+        }
+
+        // 홀수로 남은 한 명은 다음 배치까지 대기
+        if (i < batch.size() && waiting.containsKey(batch.get(i))) {
+            leftover = batch.get(i);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package Server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import Common.BinaryProtocol;
+
+/*
+ * MessageDecoder
+ * ------------------------------------------------------
+ * - 클라이언트에게서 읽어 들인 바이트를 메시지 단위로 자른다
+ *     · 첫 바이트가 ASCII   → '\n'까지 텍스트 한 줄
+ *     · 첫 바이트가 0x80 이상 → BinaryProtocol 프레임
+ *   메시지마다 판별하므로 텍스트/바이너리 클라이언트를 모두 받는다
+ * - THREAD/VIRTUAL 모드(소켓 스트림)와 NIO 모드(SocketChannel)가 공용
+ * - 아직 끝나지 않은 메시지만 연결별로 보관하므로
+ *   대기 중인(idle) 연결은 메모리를 거의 차지하지 않는다
+ * - 게임 명령(PLACE r c, RESET ...)은 텍스트 줄이어도 String을 만들지 않고
+ *   바이트에서 바로 opcode + 좌표로 해석 (onCommand)
+ *   채팅/로비 명령 등 나머지만 String으로 넘긴다
+ * ------------------------------------------------------
+ */
+
+class MessageDecoder {
+
+    // 메시지 최대 길이 (비정상 클라이언트 방어)
+    static final int MAX_LINE = 8 * 1024;
+
+    interface Sink {
+        void onLine(String line);
+        void onFrame(int op, byte[] payload, int off, int len);
+
+        // 게임 명령 (op: BinaryProtocol opcode, 좌표 없는 명령은 r = c = -1)
+        void onCommand(int op, int r, int c);
+    }
+
+    // 인자 없는 게임 명령 (텍스트 이름 바이트 ↔ opcode)
+    private static final int[] COMMAND_OPS = {
+            BinaryProtocol.USECHANCE, BinaryProtocol.RESET, BinaryProtocol.CANCEL,
+            BinaryProtocol.CANCEL_YES, BinaryProtocol.CANCEL_NO, BinaryProtocol.END
+    };
+    private static final byte[][] COMMAND_NAMES = new byte[COMMAND_OPS.length][];
+
+    private static final byte[] PLACE = "PLACE ".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        for (int i = 0; i < COMMAND_OPS.length; i++) {
+            COMMAND_NAMES[i] = BinaryProtocol.commandName(COMMAND_OPS[i]).getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private byte[] partial;     // 이전 read에서 남은 미완성 메시지 (없으면 null)
+    private int partialLen;
+
+    // ------------------------------------------
+    // buf의 내용을 메시지 단위로 잘라 sink에 전달
+    // 메시지가 너무 길거나 프레임이 잘못되면 false 반환 (연결 종료 대상)
+    // ------------------------------------------
+    boolean feed(ByteBuffer buf, Sink sink) {
+
+        byte[] arr;
+        int start, end;
+
+        if (partial == null) {
+            arr = buf.array();
+            start = buf.arrayOffset() + buf.position();
+            end = buf.arrayOffset() + buf.limit();
+        } else {
+            // 남은 조각 뒤에 이어 붙여서 처음부터 다시 해석
+            append(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+            arr = partial;
+            start = 0;
+            end = partialLen;
+            partial = null;
+            partialLen = 0;
+        }
+        buf.position(buf.limit());
+
+        while (start < end) {
+            int used = BinaryProtocol.isFrameStart(arr[start])
+                    ? decodeFrame(arr, start, end, sink)
+                    : decodeLine(arr, start, end, sink);
+
+            if (used < 0) return false;     // 잘못된 메시지
+            if (used == 0) break;           // 다음 read를 기다림
+            start += used;
+        }
+
+        // 남은 바이트는 다음 read 때까지 보관
+        if (start < end) {
+            byte[] rest = new byte[Math.max(64, end - start)];
+            System.arraycopy(arr, start, rest, 0, end - start);
+            partial = rest;
+            partialLen = end - start;
+
+            if (partialLen > MAX_LINE + 8) return false;
+        }
+
+        return true;
+    }
+
+    // 완성된 줄이면 사용한 바이트 수, 아직 '\n'이 없으면 0
+    private static int decodeLine(byte[] arr, int start, int end, Sink sink) {
+
+        for (int i = start; i < end; i++) {
+            if (arr[i] != '\n') continue;
+
+            // 앞뒤 공백 제거 ("\r\n" 포함)
+            int s = start, e = i;
+            while (s < e && (arr[s] & 0xFF) <= ' ') s++;
+            while (e > s && (arr[e - 1] & 0xFF) <= ' ') e--;
+
+            if (s < e && !decodeCommand(arr, s, e, sink)) {
+                sink.onLine(new String(arr, s, e - s, StandardCharsets.UTF_8));
+            }
+            return i + 1 - start;
+        }
+
+        return (end - start > MAX_LINE) ? -1 : 0;
+    }
+
+    // 게임 명령이면 sink.onCommand 후 true
+    // 모양이 정확히 맞지 않으면 false → 기존처럼 String 경로에서 처리
+    private static boolean decodeCommand(byte[] arr, int s, int e, Sink sink) {
+
+        if (startsWith(arr, s, e, PLACE)) {
+            int p = s + PLACE.length;
+            int r = 0, c = 0, digits = 0;
+
+            while (p < e && arr[p] >= '0' && arr[p] <= '9' && digits < 3) {
+                r = r * 10 + (arr[p++] - '0');
+                digits++;
+            }
+            if (digits == 0 || p >= e || arr[p++] != ' ') return false;
+
+            digits = 0;
+            while (p < e && arr[p] >= '0' && arr[p] <= '9' && digits < 3) {
+                c = c * 10 + (arr[p++] - '0');
+                digits++;
+            }
+            if (digits == 0 || p != e) return false;
+
+            sink.onCommand(BinaryProtocol.PLACE, r, c);
+            return true;
+        }
+
+        for (int i = 0; i < COMMAND_NAMES.length; i++) {
+            if (e - s == COMMAND_NAMES[i].length && startsWith(arr, s, e, COMMAND_NAMES[i])) {
+                sink.onCommand(COMMAND_OPS[i], -1, -1);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean startsWith(byte[] arr, int s, int e, byte[] prefix) {
+        if (e - s < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (arr[s + i] != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    // 완성된 프레임이면 사용한 바이트 수, 아직 덜 왔으면 0, 잘못되면 -1
+    private static int decodeFrame(byte[] arr, int start, int end, Sink sink) {
+
+        int op = arr[start] & 0xFF;
+        int pos = start + 1;
+        int len = 0;
+        int shift = 0;
+
+        // varint 길이
+        while (true) {
+            if (pos >= end) return 0;
+            int b = arr[pos++] & 0xFF;
+            len |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) break;
+            shift += 7;
+            if (shift > 21) return -1;
+        }
+
+        if (len > MAX_LINE) return -1;
+        if (end - pos < len) return 0;
+
+        sink.onFrame(op, arr, pos, len);
+        return pos + len - start;
+    }
+
+    private void append(byte[] src, int off, int len) {
+
+        if (partial == null) {
+            partial = new byte[Math.max(64, len)];
+        } else if (partialLen + len > partial.length) {
+            byte[] grown = new byte[Math.max(partial.length * 2, partialLen + len)];
+            System.arraycopy(partial, 0, grown, 0, partialLen);
+            partial = grown;
+        }
+
+        System.arraycopy(src, off, partial, partialLen, len);
+        partialLen += len;
+    }
+}
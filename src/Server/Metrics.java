@@ -0,0 +1,200 @@
+package Server;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import Common.BinaryProtocol;
+
+/*
+ * Metrics
+ * ------------------------------------------------------
+ * - 서버 전역 카운터 / 게이지 / 지연시간 히스토그램 모음
+ * - 카운터는 LongAdder(스레드별로 나뉜 셀에 더함)라
+ *   여러 플레이어 스레드가 동시에 올려도 서로 경합하지 않는다
+ * - 히스토그램은 나노초 값을 2의 거듭제곱 구간을 다시 8칸으로 나눈
+ *   bucket에 세기만 함 (분위 오차 12.5% 이내)
+ *   → 기록은 LongAdder 증가 몇 번, 잠금/할당 없음
+ * - 전체 내용은 dump()로 이름순 텍스트 (AdminServer가 출력)
+ * ------------------------------------------------------
+ */
+
+final class Metrics {
+
+    // ------------------------------------------
+    // 카운터
+    // ------------------------------------------
+    static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        void increment() { value.increment(); }
+        void add(long n) { value.add(n); }
+        long get() { return value.sum(); }
+    }
+
+    // ------------------------------------------
+    // 지연시간 히스토그램 (나노초)
+    // 0~7ns는 1ns씩, 그 위는 [2^e, 2^(e+1))을 SUB칸으로 나눔
+    // (맨 위 3비트로 칸을 고르므로 칸 너비 = 값의 1/8 이하)
+    // ------------------------------------------
+    static final class Histogram {
+        private static final int SUB_BITS = 3;
+        private static final int SUB = 1 << SUB_BITS;
+
+        private final LongAdder[] buckets = new LongAdder[(64 - SUB_BITS) * SUB];
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private Histogram() {
+            for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+        }
+
+        void record(long nanos) {
+            if (nanos < 0) nanos = 0;
+            buckets[index(nanos)].increment();
+            sum.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        private static int index(long nanos) {
+            if (nanos < SUB) return (int) nanos;
+            int e = 63 - Long.numberOfLeadingZeros(nanos);      // 최상위 비트 위치 (>= SUB_BITS)
+            int sub = (int) (nanos >>> (e - SUB_BITS)) & (SUB - 1);
+            return (e - SUB_BITS + 1) * SUB + sub;
+        }
+
+        // bucket i에 들어가는 가장 큰 값
+        private static long upperBound(int i) {
+            if (i < SUB) return i;
+            int shift = i / SUB - 1;
+            long lower = (long) (SUB + i % SUB) << shift;
+            return lower + (1L << shift) - 1;
+        }
+
+        // 시작 시각(System.nanoTime)부터 지금까지
+        void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        // q 분위가 들어 있는 bucket의 상한 (나노초)
+        private long quantile(long[] snap, long total, double q) {
+            long rank = (long) Math.ceil(total * q);
+            long seen = 0;
+            for (int i = 0; i < snap.length; i++) {
+                seen += snap[i];
+                if (seen >= rank && seen > 0) return upperBound(i);
+            }
+            return 0;
+        }
+
+        String summary() {
+            long[] snap = new long[buckets.length];
+            long total = 0;
+            for (int i = 0; i < snap.length; i++) {
+                snap[i] = buckets[i].sum();
+                total += snap[i];
+            }
+
+            long mean = (total > 0) ? sum.sum() / total : 0;
+
+            return "count=" + total
+                    + " mean_us=" + micros(mean)
+                    + " p50_us<=" + micros(quantile(snap, total, 0.50))
+                    + " p99_us<=" + micros(quantile(snap, total, 0.99))
+                    + " max_us=" + micros(max.get());
+        }
+
+        private static String micros(long nanos) {
+            return String.format("%.1f", nanos / 1000.0);
+        }
+    }
+
+
+    // ------------------------------------------
+    // 등록부 (이름순)
+    // ------------------------------------------
+    private static final Map<String, Object> registry = new ConcurrentSkipListMap<>();
+
+    static Counter counter(String name) {
+        return (Counter) registry.computeIfAbsent(name, k -> new Counter());
+    }
+
+    static Histogram histogram(String name) {
+        return (Histogram) registry.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    // 읽을 때마다 값을 계산하는 게이지 (같은 이름이면 교체)
+    static void gauge(String name, LongSupplier supplier) {
+        registry.put(name, supplier);
+    }
+
+
+    // ------------------------------------------
+    // 서버가 쓰는 지표들
+    // ------------------------------------------
+    static final Counter CONNECTIONS_ACCEPTED = counter("connections.accepted");
+    static final Counter BYTES_IN = counter("bytes.in");
+    static final Counter BYTES_OUT = counter("bytes.out");
+
+    static final Histogram HANDLE_PLACE = histogram("latency.handlePlace");
+    static final Histogram UPDATE_BAN = histogram("latency.updateBan");
+    static final Histogram ROOM_LIST = histogram("latency.getRoomList");
+
+    // 게임 명령 opcode별 메시지 수 (문자열 조회 없이 배열 인덱스)
+    private static final Counter[] COMMANDS = new Counter[0x80];
+
+    static Counter command(int op) {
+        int i = op & 0x7F;
+        Counter c = COMMANDS[i];
+        if (c == null) {
+            String name = (op == BinaryProtocol.PLACE) ? "PLACE" : BinaryProtocol.commandName(op);
+            c = COMMANDS[i] = counter("messages." + (name != null ? name : "OP_" + Integer.toHexString(op)));
+        }
+        return c;
+    }
+
+    // 텍스트 메시지: 첫 단어가 명령 종류
+    // 클라이언트가 아무 단어나 보낼 수 있으므로 종류 수를 제한
+    private static final int MAX_MESSAGE_TYPES = 64;
+    private static final AtomicInteger messageTypes = new AtomicInteger();
+
+    static void message(String msg) {
+        int sp = msg.indexOf(' ');
+        String name = "messages." + (sp < 0 ? msg : msg.substring(0, sp));
+
+        Object c = registry.get(name);
+        if (c == null) {
+            if (messageTypes.incrementAndGet() > MAX_MESSAGE_TYPES) {
+                messageTypes.decrementAndGet();
+                name = "messages.OTHER";
+            }
+            c = counter(name);
+        }
+        ((Counter) c).increment();
+    }
+
+    private Metrics() {}
+
+
+    // ------------------------------------------
+    // 전체 출력 (한 줄에 지표 하나)
+    // ------------------------------------------
+    static String dump() {
+        StringBuilder sb = new StringBuilder();
+
+        for (Map.Entry<String, Object> e : registry.entrySet()) {
+            Object m = e.getValue();
+            sb.append(e.getKey()).append(' ');
+
+            if (m instanceof Counter) sb.append(((Counter) m).get());
+            else if (m instanceof Histogram) sb.append(((Histogram) m).summary());
+            else sb.append(((LongSupplier) m).getAsLong());
+
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package Server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * NioConnection
+ * ------------------------------------------------------
+ * - NIO 모드에서 클라이언트 1명의 SocketChannel을 감싼다
+ * - 읽기/쓰기는 항상 소속 I/O 루프 스레드에서만 수행
+ * - 읽은 바이트의 해석(줄/프레임)은 Player의 MessageDecoder가 담당
+ * - 다른 스레드의 send()는 쓰기 큐에 넣고 루프에 전송을 요청
+ * ------------------------------------------------------
+ */
+
+class NioConnection {
+
+    private final SocketChannel channel;
+    private final NioServer.IoLoop loop;
+    private SelectionKey key;
+    private Player player;
+
+    private final Queue<ByteBuffer> writeQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    NioConnection(SocketChannel channel, NioServer.IoLoop loop) {
+        this.channel = channel;
+        this.loop = loop;
+    }
+
+    void attach(Player player, SelectionKey key) {
+        this.player = player;
+        this.key = key;
+    }
+
+    // ------------------------------------------
+    // 서버 → 클라이언트 (아무 스레드에서나 호출 가능)
+    // bytes는 Player.flush()가 줄바꿈까지 붙여 묶은 메시지 묶음
+    // ------------------------------------------
+    void write(byte[] bytes) {
+        if (closed.get()) return;
+
+        writeQueue.add(ByteBuffer.wrap(bytes));
+        loop.requestFlush(this);
+    }
+
+    // ------------------------------------------
+    // 읽기 가능 → 줄 단위로 Player에 전달 (루프 스레드)
+    // ------------------------------------------
+    void onReadable(ByteBuffer readBuf) {
+        try {
+            readBuf.clear();
+            int n = channel.read(readBuf);
+
+            if (n < 0) {
+                close();
+                return;
+            }
+
+            readBuf.flip();
+            if (!player.onBytes(readBuf)) {
+                Log.warn(Log.PLAYER, "[Player] 잘못된 메시지, 연결 종료: " + player.getNickname());
+                close();
+            }
+
+        } catch (Exception e) {
+            // THREAD 모드와 동일하게 처리 중 예외는 연결 종료로 간주
+            Log.info(Log.PLAYER, "[Player] 연결 끊김: " + player.getNickname());
+            close();
+        }
+    }
+
+    // ------------------------------------------
+    // 쓰기 큐 비우기 (루프 스레드)
+    // 소켓 버퍼가 가득 차면 OP_WRITE로 다음 기회에 이어서 전송
+    // 다른 스레드의 close()(하트비트, 송신 한도 초과)가 키를 먼저 취소했으면
+    // interestOps가 CancelledKeyException → 닫힌 연결로 처리
+    // ------------------------------------------
+    void flush() {
+        if (closed.get()) return;
+
+        try {
+            ByteBuffer buf;
+            while ((buf = writeQueue.peek()) != null) {
+                channel.write(buf);
+                if (buf.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                writeQueue.poll();
+                player.written(buf.limit());
+            }
+
+            key.interestOps(SelectionKey.OP_READ);
+
+        } catch (IOException | CancelledKeyException e) {
+            close();
+        }
+    }
+
+    // ------------------------------------------
+    // 연결 종료 + 방 정리 (한 번만 수행)
+    // ------------------------------------------
+    void close() {
+        if (!closed.compareAndSet(false, true)) return;
+
+        if (key != null) key.cancel();
+        try { channel.close(); } catch (IOException ignore) {}
+
+        writeQueue.clear();
+        player.onDisconnect();
+    }
+}
@@ -0,0 +1,167 @@
+package Server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/*
+ * NioServer
+ * ------------------------------------------------------
+ * - 연결마다 스레드를 만들지 않는 논블로킹 서버 모드
+ * - accept 전용 스레드 1개 + 고정 개수의 I/O 루프 스레드
+ * - 각 I/O 루프는 자신의 Selector로 여러 연결을 담당하며
+ *   읽은 바이트를 Player.onBytes()로 넘겨
+ *   OmokServer.handleLobbyCommand / Room.handleGameMessage로 분배
+ * ------------------------------------------------------
+ */
+
+class NioServer {
+
+    private final OmokServer server;
+    private final ServerSocketChannel serverChannel;
+    private final IoLoop[] loops;
+    private int next = 0;               // 라운드로빈 배정 위치
+
+    NioServer(OmokServer server, int port, int ioThreads) throws IOException {
+        this.server = server;
+
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+
+        loops = new IoLoop[ioThreads];
+        for (int i = 0; i < ioThreads; i++) {
+            loops[i] = new IoLoop(i);
+        }
+    }
+
+    // --------------------------------
+    // I/O 루프 시작 후 accept 루프 실행 (블로킹)
+    // --------------------------------
+    void start() {
+
+        for (IoLoop loop : loops) {
+            loop.thread.start();
+        }
+
+        Log.info(Log.SERVER, "[SERVER] NIO 모드, I/O 스레드 " + loops.length + "개");
+
+        try {
+            while (true) {
+                SocketChannel ch = serverChannel.accept();
+                ch.configureBlocking(false);
+                ch.socket().setTcpNoDelay(true);
+
+                Log.info(Log.SERVER, "[SERVER] 클라이언트 연결됨");
+
+                IoLoop loop = loops[next];
+                next = (next + 1) % loops.length;
+                loop.register(ch);
+            }
+
+        } catch (IOException e) {
+            Log.info(Log.SERVER, "[SERVER] 서버 종료");
+        }
+    }
+
+
+    // ==================================================
+    // I/O 루프 (Selector 1개 = 스레드 1개)
+    // ==================================================
+    class IoLoop implements Runnable {
+
+        final Thread thread;
+        private final Selector selector;
+
+        // 다른 스레드에서 넘어온 등록/쓰기 요청
+        private final Queue<SocketChannel> pendingRegister = new ConcurrentLinkedQueue<>();
+        private final Queue<NioConnection> pendingFlush = new ConcurrentLinkedQueue<>();
+
+        // 루프 전체가 공유하는 읽기 버퍼 (연결별 버퍼 없음)
+        private final ByteBuffer readBuf = ByteBuffer.allocate(64 * 1024);
+
+        IoLoop(int index) throws IOException {
+            selector = Selector.open();
+            thread = new Thread(this, "nio-io-" + index);
+        }
+
+        void register(SocketChannel ch) {
+            pendingRegister.add(ch);
+            selector.wakeup();
+        }
+
+        // 쓰기 요청: 루프 스레드가 다음 회차에 실제로 전송
+        void requestFlush(NioConnection conn) {
+            pendingFlush.add(conn);
+            if (Thread.currentThread() != thread) {
+                selector.wakeup();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    selector.select();
+
+                    registerPending();
+
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+
+                        NioConnection conn = (NioConnection) key.attachment();
+                        try {
+                            if (!key.isValid()) continue;
+
+                            if (key.isReadable()) conn.onReadable(readBuf);
+                            if (key.isValid() && key.isWritable()) conn.flush();
+                        } catch (RuntimeException e) {
+                            fail(conn, e);
+                        }
+                    }
+
+                    // 이번 회차에 쌓인 응답 전송
+                    // 한 연결의 오류가 나머지 연결의 전송을 다음 회차로 미루지 않도록 연결마다 따로
+                    NioConnection conn;
+                    while ((conn = pendingFlush.poll()) != null) {
+                        try {
+                            conn.flush();
+                        } catch (RuntimeException e) {
+                            fail(conn, e);
+                        }
+                    }
+
+                } catch (Exception e) {
+                    Log.warn(Log.SERVER, "[SERVER] I/O 루프 오류: " + e);
+                }
+            }
+        }
+
+        // 연결 하나에서 난 예상 못 한 오류: 그 연결만 닫음
+        private void fail(NioConnection conn, RuntimeException e) {
+            Log.warn(Log.SERVER, "[SERVER] 연결 처리 오류: " + e);
+            conn.close();
+        }
+
+        private void registerPending() {
+            SocketChannel ch;
+            while ((ch = pendingRegister.poll()) != null) {
+                try {
+                    NioConnection conn = new NioConnection(ch, this);
+                    conn.attach(new Player(conn, server),
+                            ch.register(selector, SelectionKey.OP_READ, conn));
+                } catch (IOException e) {
+                    try { ch.close(); } catch (IOException ignore) {}
+                }
+            }
+        }
+    }
+}
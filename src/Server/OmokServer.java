@@ -3,11 +3,17 @@ package Server;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /*
  * OmokServer
  * -------------------------------
  * - 클라이언트를 받아 Player 스레드를 생성
+ *   (NIO 모드에서는 NioServer의 I/O 루프가 Player를 구동)
  * - 로비 관련 메시지를 파싱하여 RoomManager에 위임
  * - 실제 방 생성/입장/삭제는 RoomManager가 담당
  * -------------------------------
@@ -15,18 +21,108 @@ import java.net.Socket;
 
 public class OmokServer {
 
-    private ServerSocket serverSocket;   // 클라이언트 접속을 받는 소켓
+    // 서버 실행 모드
+    public enum Mode {
+        THREAD,     // 연결마다 Player 스레드 1개 (기존 방식)
+        VIRTUAL,    // 연결마다 가상 스레드 1개 (블로킹 코드 그대로 사용)
+        NIO         // Selector 기반, 고정 개수 I/O 스레드
+    }
+
+    private ServerSocket serverSocket;   // 클라이언트 접속을 받는 소켓 (THREAD 모드)
+    private NioServer nioServer;         // 논블로킹 서버 (NIO 모드)
     private RoomManager roomManager;     // 방 관리 매니저
 
+    private final Mode mode;
+    private final SessionStats sessionStats;  // 모드별 동시 세션 집계
+    private final Heartbeat heartbeat;        // PING / 유휴 세션 정리
+
+    // VIRTUAL 모드에서 Player를 구동할 가상 스레드 팩토리 (다른 모드는 null)
+    private final ThreadFactory virtualThreads;
+
+    // 스트림 모드에서 느린 소켓 write를 대신 맡는 풀 (Player.flush, NIO 모드는 null)
+    private final Executor writers;
+
     public OmokServer(int port) throws IOException {
+        this(port, Mode.THREAD, 0);
+    }
+
+    public OmokServer(int port, Mode mode, int ioThreads) throws IOException {
+
+        this.mode = mode;
+
+        // 가상 스레드는 JDK 21 이상에서만 (THREAD / NIO 모드는 JDK 17에서도 실행)
+        if (mode == Mode.VIRTUAL) {
+            virtualThreads = virtualThreadFactory("player-v");
+            if (virtualThreads == null) {
+                throw new IOException("virtual 모드는 JDK 21 이상 필요 (현재 "
+                        + Runtime.version().feature() + ")");
+            }
+        } else {
+            virtualThreads = null;
+        }
+
+        // VIRTUAL: 작업마다 새 가상 스레드 (풀에 담아 둘 이유가 없음)
+        // THREAD: 필요할 때만 스레드를 만들고, 한가해지면 60초 뒤 정리
+        if (mode == Mode.VIRTUAL) {
+            ThreadFactory writerThreads = virtualThreadFactory("writer-v");
+            writers = task -> writerThreads.newThread(task).start();
+        } else if (mode == Mode.THREAD) {
+            writers = Executors.newCachedThreadPool(Mailbox.daemonThreads("writer"));
+        } else {
+            writers = null;
+        }
 
-        // 서버 소켓 생성 후 포트에 바인딩
-        serverSocket = new ServerSocket(port);
+        this.sessionStats = new SessionStats(mode);
+        this.heartbeat = new Heartbeat(Long.getLong("omok.heartbeat.sec", 15), Long.getLong("omok.idle.sec", 45),
+                Long.getLong("omok.idle.legacySec", 7200));
+
+        // 모드에 맞는 서버 소켓 생성 후 포트에 바인딩
+        if (mode == Mode.NIO) {
+            nioServer = new NioServer(this, port, ioThreads);
+        } else {
+            serverSocket = new ServerSocket(port);
+        }
 
         // 방 목록을 관리할 RoomManager 생성
-        roomManager = new RoomManager();
+        // 스냅샷(-Domok.restore) 또는 저널(-Domok.journal)에서 이전 방들을 복구
+        List<RoomState> restored = restoreSnapshot(System.getProperty("omok.restore"));
+        Journal journal = Journal.open(System.getProperty("omok.journal"), restored);
+        roomManager = new RoomManager(journal, (restored != null) ? restored : journal.recovered());
+
+        // 관리 포트에서 보는 현재값 지표
+        Metrics.gauge("connections.open", sessionStats::getOpen);
+        Metrics.gauge("rooms.active", roomManager::getRoomCount);
+
+        Log.info(Log.SERVER, "[SERVER] 서버 시작됨: " + port);
+        sessionStats.printStartup();
+    }
+
+    // 무중단 재시작: 이전 서버가 SNAPSHOT으로 남긴 파일에서 방 복원
+    private static List<RoomState> restoreSnapshot(String file) throws IOException {
+
+        if (file == null || file.isEmpty()) return null;
+
+        long start = System.nanoTime();
+        List<RoomState> states = Snapshot.read(Paths.get(file));
+        Log.info(Log.SERVER, "[SNAPSHOT] " + file + " 방 " + states.size() + "개 복원 ("
+                + (System.nanoTime() - start) / 1_000_000 + "ms)");
+        return states;
+    }
+
+    SessionStats getSessionStats() {
+        return sessionStats;
+    }
+
+    Heartbeat getHeartbeat() {
+        return heartbeat;
+    }
 
-        System.out.println("[SERVER] 서버 시작됨: " + port);
+    Executor getWriters() {
+        return writers;
+    }
+
+    RoomManager getRoomManager() {
+        return roomManager;
     }
 
     // --------------------------------
@@ -34,23 +130,53 @@ public class OmokServer {
     // 클라이언트를 계속 받아 Player 생성
     // --------------------------------
     public void start() {
+
+        // 동시 세션 수 주기 보고 (-Domok.report.sec=0 으로 끔)
+        sessionStats.startReporter(Integer.getInteger("omok.report.sec", 30));
+
+        // 조용한 세션에 PING, 응답 없으면 종료 (-Domok.heartbeat.sec=0 으로 끔)
+        heartbeat.start();
+
+        // 금수 패턴표는 첫 게임이 아니라 서버 시작 시 미리 생성
+        LinePatterns.flags(0);
+
+        // 관리 포트 (-Domok.admin.port, localhost 전용)
+        int adminPort = Integer.getInteger("omok.admin.port", 0);
+        if (adminPort > 0) {
+            try {
+                new AdminServer(adminPort, roomManager).start();
+            } catch (IOException e) {
+                Log.warn(Log.SERVER, "[ADMIN] 관리 포트 열기 실패: " + e);
+            }
+        }
+
+        if (nioServer != null) {
+            nioServer.start();
+            return;
+        }
+
         try {
             while (true) {
 
                 // 클라이언트 접속 대기 (블로킹)
                 Socket socket = serverSocket.accept();
-                System.out.println("[SERVER] 클라이언트 연결됨");
+                Log.info(Log.SERVER, "[SERVER] 클라이언트 연결됨");
 
                 // Player 객체 생성 (클라이언트마다 1개)
                 Player p = new Player(socket, this);
 
                 // Player는 스레드 단위로 동작
-                Thread t = new Thread(p);
-                t.start();
+                // VIRTUAL 모드는 플랫폼 스레드 대신 가상 스레드 사용
+                if (mode == Mode.VIRTUAL) {
+                    virtualThreads.newThread(p).start();
+                } else {
+                    Thread t = new Thread(p);
+                    t.start();
+                }
             }
 
         } catch (Exception e) {
-            System.out.println("[SERVER] 서버 종료");
+            Log.info(Log.SERVER, "[SERVER] 서버 종료");
         }
     }
 
@@ -82,11 +208,14 @@ public class OmokServer {
             }
 
             p.setNickname(sp[1]);
-            System.out.println("[SERVER] 닉네임 설정: " + p.getNickname());
+            Log.info(Log.SERVER, "[SERVER] 닉네임 설정: " + p.getNickname());
 
             // 1) 로그인 성공 신호 전송
             p.send("NICKOK");
 
+            // 재시작 전에 두던 게임이 있으면 그 자리로 바로 입장 (JOINED 전송)
+            roomManager.reconnect(p);
+
             // 2) 클라이언트가 showLobby() 실행 후
             //    ClientMain이 ROOMLIST 요청을 보내므로
             //    여기서는 ROOMLIST 안 보냄 (중복 문제 해결)
@@ -95,6 +224,19 @@ public class OmokServer {
         }
 
 
+            // ===========================
+            // 바이너리 프로토콜 협상 (PROTO BIN)
+            // → PROTOOK BIN 응답 후 서버 → 클라이언트는 프레임 전송
+            // ===========================
+            case "PROTO": {
+                if (sp.length >= 2 && sp[1].equals("BIN")) {
+                    p.enableBinary();
+                } else {
+                    p.send("ERROR UNKNOWNPROTO");
+                }
+                return;
+            }
+
             // ===========================
             // 방 목록 요청
             // ===========================
@@ -103,6 +245,82 @@ public class OmokServer {
                 return;
             }
 
+            // ===========================
+            // 방 목록 구독
+            // → 전체 목록 1회 + 이후 ROOMADD/ROOMUPDATE/ROOMREMOVE 푸시
+            // ===========================
+            case "ROOMSUB": {
+                roomManager.subscribe(p);
+                return;
+            }
+
+            // ===========================
+            // 빠른 대전
+            // QUICKMATCH → MATCHWAIT, 짝이 정해지면 JOINED + START
+            // CANCELMATCH → MATCHCANCEL
+            // ===========================
+            case "QUICKMATCH": {
+                if (p.getRoom() != null) {
+                    p.send("ERROR INROOM");   // 이미 자리에 앉아 있음
+                    return;
+                }
+
+                p.stopWatching();
+                p.send(roomManager.queueMatch(p) ? "MATCHWAIT" : "ERROR ALREADYQUEUED");
+                return;
+            }
+
+            case "CANCELMATCH": {
+                p.send(roomManager.cancelMatch(p) ? "MATCHCANCEL" : "ERROR NOTQUEUED");
+                return;
+            }
+
+            // ===========================
+            // 컴퓨터와 대전
+            // PLAYAI [B|W] → AI가 둘 색 (기본 W, 사람이 흑)
+            // ===========================
+            case "PLAYAI": {
+                if (p.getRoom() != null) {
+                    p.send("ERROR INROOM");
+                    return;
+                }
+
+                char aiColor = (sp.length >= 2 && sp[1].equalsIgnoreCase("B")) ? 'B' : 'W';
+
+                leaveLobbyQueues(p);
+                roomManager.playAi(p, aiColor);
+                return;
+            }
+
+            // ===========================
+            // 관전
+            // WATCH 방이름 → WATCHING 방이름 흑닉 백닉 + 지금까지의 수
+            // UNWATCH → 관전 종료
+            // ===========================
+            case "WATCH": {
+                if (sp.length < 2) {
+                    p.send("ERROR NONAME");
+                    return;
+                }
+
+                if (p.getRoom() != null) {
+                    p.send("ERROR INROOM");   // 대국자는 관전 불가
+                    return;
+                }
+
+                leaveLobbyQueues(p);
+                String result = roomManager.watchRoom(sp[1], p);
+                if (result != null) {
+                    p.send(result); // ERROR NOROOM
+                }
+                return;
+            }
+
+            case "UNWATCH": {
+                p.stopWatching();
+                return;
+            }
+
             // ===========================
             // 방 생성
             // CREATEROOM 방이름
@@ -113,9 +331,16 @@ public class OmokServer {
                     return;
                 }
 
+                leaveLobbyQueues(p);
+
                 String roomName = sp[1]; // 공백 없는 단어이므로 OK
 
-                roomManager.createRoom(roomName, p);
+                String result = roomManager.createRoom(roomName, p);
+                if (result.startsWith("ERROR")) {
+                    p.send(result);
+                    return;
+                }
+
                 p.send("JOINED " + roomName + " B");
                 return;
             }
@@ -135,8 +360,11 @@ public class OmokServer {
 
                 String roomName = sp[1]; // 공백 X로 안전
 
+                leaveLobbyQueues(p);
                 String result = roomManager.joinRoom(roomName, p);
-                p.send(result);
+                if (result != null) {
+                    p.send(result); // ERROR NOROOM / ERROR FULL
+                }
                 return;
             }
 
@@ -153,19 +381,51 @@ public class OmokServer {
     }
 
 
+    // 직접 방에 들어가거나 관전을 시작하면 대기열/관전에서 빠짐
+    private void leaveLobbyQueues(Player p) {
+        p.stopWatching();
+        roomManager.cancelMatch(p);
+    }
+
+
+    // prefix0, prefix1 ... 이름의 가상 스레드 팩토리
+    // 가상 스레드는 JDK 21 API라 리플렉션으로 생성 (JDK 17에서도 컴파일/실행)
+    // 실행 중인 JDK가 21 미만이면 null
+    static ThreadFactory virtualThreadFactory(String prefix) {
+
+        if (Runtime.version().feature() < 21) return null;
+
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Object b = Thread.class.getMethod("ofVirtual").invoke(null);
+            b = builder.getMethod("name", String.class, long.class).invoke(b, prefix, 0L);
+            return (ThreadFactory) builder.getMethod("factory").invoke(b);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+
     // 프로그램 시작 지점
+    // 사용법: OmokServer [포트] [thread|virtual|nio] [I/O 스레드 수]
     public static void main(String[] args) {
 
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : 9999;
+        Mode mode = (args.length > 1) ? Mode.valueOf(args[1].toUpperCase()) : Mode.THREAD;
+        int ioThreads = (args.length > 2)
+                ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+
         try {
 
             // 서버 생성
-            OmokServer server = new OmokServer(9999);
+            OmokServer server = new OmokServer(port, mode, ioThreads);
 
             // 접속 대기 시작
             server.start();
 
         } catch (IOException e) {
-            e.printStackTrace();
+            Log.error(Log.SERVER, "[SERVER] 서버 시작 실패", e);
         }
     }
 }
@@ -0,0 +1,245 @@
+package Server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import Common.BinaryProtocol;
+
+/*
+ * Packet
+ * ------------------------------------------------------
+ * - 서버 → 클라이언트 메시지 1개
+ * - 같은 메시지를 텍스트 한 줄 / 바이너리 프레임 두 가지로 인코딩
+ *   (어느 쪽으로 보낼지는 받는 Player가 협상한 프로토콜에 따름)
+ * - 게임 중 자주 보내는 메시지는 전용 opcode,
+ *   나머지는 TEXT 프레임에 담긴다
+ * - 텍스트 한 줄이 아닌 여러 줄이 될 수도 있음 (금수판: BAN_CLEAR + BAN...)
+ * - 인코딩 결과는 프로토콜별로 한 번만 만들어 두고 받는 사람 모두가 공유
+ *   (관전자가 수백 명이어도 방송 한 번 = 인코딩 최대 2번)
+ *   → encode()가 돌려준 배열은 읽기 전용
+ * - kind(): 느린 수신자 정책(Player)이 버리거나 합칠 수 있는 종류 구분
+ * ------------------------------------------------------
+ */
+
+final class Packet {
+
+    // 느린 수신자 정책용 종류
+    static final int OTHER = 0;
+    static final int CHAT = 1;      // 밀리면 먼저 버림
+    static final int TURN = 2;      // 밀린 것끼리는 마지막 하나만
+    static final int BAN = 3;       // 밀린 것끼리 하나로 합침
+
+    private final String text;      // 텍스트 프로토콜 한 줄 (줄바꿈 제외)
+    private final int op;           // 바이너리 opcode
+    private final int[] args;       // 바이너리 payload 바이트들
+    private final String suffix;    // payload 뒤에 붙는 문자열 (TURN의 상대 닉네임)
+    private final byte[] payload;   // 미리 만든 payload (금수 비트맵처럼 긴 것)
+
+    // 인코딩 캐시: 경쟁이 나도 같은 내용을 다시 만들 뿐이고,
+    // volatile이라 다른 스레드에는 다 채워진 배열만 보인다
+    private volatile byte[] textBytes;
+    private volatile byte[] binaryBytes;
+
+    // HINT 위협 칸 최대 개수 (프레임 payload 128바이트 미만 유지)
+    private static final int MAX_THREATS = 32;
+
+    private Packet(String text, int op, int... args) {
+        this(text, op, null, args);
+    }
+
+    private Packet(String text, int op, String suffix, int... args) {
+        this.text = text;
+        this.op = op;
+        this.suffix = suffix;
+        this.args = args;
+        this.payload = null;
+    }
+
+    private Packet(String text, int op, byte[] payload) {
+        this.text = text;
+        this.op = op;
+        this.suffix = null;
+        this.args = null;
+        this.payload = payload;
+    }
+
+    // ------------------------------------------
+    // 인코딩 (캐시)
+    // ------------------------------------------
+    byte[] encode(boolean binary) {
+
+        byte[] bytes = binary ? binaryBytes : textBytes;
+        if (bytes == null) {
+            bytes = doEncode(binary);
+            if (binary) binaryBytes = bytes;
+            else textBytes = bytes;
+        }
+        return bytes;
+    }
+
+    private byte[] doEncode(boolean binary) {
+
+        if (!binary) {
+            return (text + "\n").getBytes(StandardCharsets.UTF_8);
+        }
+
+        if (payload != null) {
+            // 바뀐 금수가 없는 BAN_DIFF → 보낼 것 없음
+            if (op == BinaryProtocol.BAN_DIFF && payload.length == 0) return new byte[0];
+            return BinaryProtocol.frame(op, payload, 0, payload.length);
+        }
+        if (op == BinaryProtocol.TEXT) {
+            return BinaryProtocol.textFrame(text);
+        }
+        if (suffix != null) {
+            return BinaryProtocol.frameWithText(op, args[0], suffix);
+        }
+        return BinaryProtocol.frame(op, args);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    // 서버 안에서 받는 쪽(AiPlayer)이 문자열을 다시 나누지 않고 읽도록
+    // op = 바이너리 opcode, arg(i) = payload i번째 바이트 (TEXT면 toString())
+    int op() {
+        return op;
+    }
+
+    int arg(int i) {
+        return args[i];
+    }
+
+    int kind() {
+        if (op == BinaryProtocol.TURN) return TURN;
+        if (op == BinaryProtocol.BAN_MAP || op == BinaryProtocol.BAN_DIFF) return BAN;
+        if (op == BinaryProtocol.TEXT && text.startsWith("CHAT ")) return CHAT;
+        return OTHER;
+    }
+
+
+    // ------------------------------------------
+    // 아직 못 보낸 금수판 두 개(인코딩 결과)를 하나로
+    // 텍스트 / BAN_MAP은 판 전체라 새 것만 남기고,
+    // BAN_DIFF는 이전 것 위에 뒤집기를 겹쳐 적용
+    // ------------------------------------------
+    static byte[] collapseBan(byte[] older, byte[] newer) {
+
+        int newOp = newer[0] & 0xFF;
+        if (!BinaryProtocol.isFrameStart(newOp) || newOp == BinaryProtocol.BAN_MAP) return newer;
+
+        int size = BinaryProtocol.BOARD_SIZE;
+        boolean[][] ban = new boolean[size][size];
+
+        int oldOp = older[0] & 0xFF;
+        int oldOff = headerSize(older);
+        if (oldOp == BinaryProtocol.BAN_MAP) BinaryProtocol.readBanMap(older, oldOff, ban);
+        else BinaryProtocol.readBanDiff(older, oldOff, older.length - oldOff, ban);
+
+        int newOff = headerSize(newer);
+        BinaryProtocol.readBanDiff(newer, newOff, newer.length - newOff, ban);
+
+        if (oldOp == BinaryProtocol.BAN_MAP) {
+            byte[] map = BinaryProtocol.banMap(ban);
+            return BinaryProtocol.frame(BinaryProtocol.BAN_MAP, map, 0, map.length);
+        }
+
+        // 차이 + 차이 = 두 번 뒤집힌 칸은 제자리
+        byte[] diff = new byte[size * size];
+        int n = 0;
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (ban[r][c]) diff[n++] = (byte) BinaryProtocol.pack(r, c);
+            }
+        }
+        return BinaryProtocol.frame(BinaryProtocol.BAN_DIFF, diff, 0, n);
+    }
+
+    // opcode + varint 길이
+    private static int headerSize(byte[] frame) {
+        int i = 1;
+        while ((frame[i] & 0x80) != 0) i++;
+        return i + 1;
+    }
+
+
+    // ------------------------------------------
+    // 메시지 종류별 생성
+    // ------------------------------------------
+    static Packet text(String line) {
+        return new Packet(line, BinaryProtocol.TEXT);
+    }
+
+    static Packet move(int r, int c, char color) {
+        return new Packet("MOVE " + r + " " + c + " " + color,
+                BinaryProtocol.MOVE, BinaryProtocol.pack(r, c), color);
+    }
+
+    static Packet turn(char color, String opponent) {
+        return new Packet("TURN " + color + " " + opponent, BinaryProtocol.TURN, opponent, color);
+    }
+
+    // 금수판 전체
+    // - 텍스트: 기존과 같이 BAN_CLEAR + 금수 칸마다 BAN 한 줄
+    // - 바이너리: prev(직전에 보낸 금수판)와 달라진 칸만 BAN_DIFF 한 프레임,
+    //            prev가 없거나 달라진 칸이 비트맵보다 길면 BAN_MAP 한 프레임
+    static Packet banMap(boolean[][] ban, boolean[][] prev) {
+
+        StringBuilder sb = new StringBuilder("BAN_CLEAR");
+        byte[] diff = new byte[BinaryProtocol.BAN_MAP_BYTES];
+        int n = 0;
+
+        for (int r = 0; r < ban.length; r++) {
+            for (int c = 0; c < ban[r].length; c++) {
+                if (ban[r][c]) {
+                    sb.append("\nBAN ").append(r).append(' ').append(c);
+                }
+                if (prev != null && ban[r][c] != prev[r][c] && n < diff.length) {
+                    diff[n++] = (byte) BinaryProtocol.pack(r, c);
+                }
+            }
+        }
+
+        if (prev == null || n == diff.length) {
+            return new Packet(sb.toString(), BinaryProtocol.BAN_MAP, BinaryProtocol.banMap(ban));
+        }
+        return new Packet(sb.toString(), BinaryProtocol.BAN_DIFF, Arrays.copyOf(diff, n));
+    }
+
+    static Packet life(char color, int count) {
+        return new Packet("LIFE " + color + " " + count, BinaryProtocol.LIFE, color, count);
+    }
+
+    static Packet chances(char color, int count) {
+        return new Packet("CHANCES " + color + " " + count, BinaryProtocol.CHANCES, color, count);
+    }
+
+    static Packet undo(int r, int c, int prevR, int prevC, char color) {
+        return new Packet("UNDO " + r + " " + c + " " + prevR + " " + prevC + " " + color,
+                BinaryProtocol.UNDO, BinaryProtocol.pack(r, c), BinaryProtocol.pack(prevR, prevC), color);
+    }
+
+    // 찬스 힌트: HINT 추천수개수 r c ... (추천 수들 뒤에 위협 칸들)
+    static Packet hint(int[] moves, int[] threats) {
+
+        int n = Math.min(threats.length, MAX_THREATS);
+        int[] args = new int[1 + moves.length + n];
+        StringBuilder sb = new StringBuilder("HINT ").append(moves.length);
+
+        args[0] = moves.length;
+        for (int i = 0; i < moves.length + n; i++) {
+            int cell = (i < moves.length) ? moves[i] : threats[i - moves.length];
+            int r = cell / Board.SIZE, c = cell % Board.SIZE;
+
+            sb.append(' ').append(r).append(' ').append(c);
+            args[1 + i] = BinaryProtocol.pack(r, c);
+        }
+        return new Packet(sb.toString(), BinaryProtocol.HINT, args);
+    }
+
+    static Packet win(char color) {
+        return new Packet("WIN " + color, BinaryProtocol.WIN, color);
+    }
+}
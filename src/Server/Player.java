@@ -1,10 +1,20 @@
 package Server;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import Common.BinaryProtocol;
 
 /*
  * Player
@@ -13,46 +23,294 @@ import java.net.Socket;
  * - 로비 상태 / 게임 상태를 자동 구분하여 처리
  * - 서버에서 받은 메시지를 해석하는 역할은 하지 않음
  *   (해석은 OmokServer 또는 Room이 담당)
+ * - send()는 송신 큐에 쌓기만 하고, flush()에서 한 번에 전송
+ *   (게임 이벤트 하나가 만든 여러 줄을 write 1번으로 묶음)
+ * - flush()는 호출한 스레드를 막지 않음
+ *   스트림 모드에서 자기 수신 스레드가 아니면(방 우편함, 로비 피드 ...)
+ *   write는 서버의 writer 풀 스레드 하나가 대신 수행
+ *   → 창이 꽉 찬 느린 클라이언트는 자기 자신만 느려짐
+ * - 송신 큐는 아직 못 보낸 바이트 수로 제한 (느린 수신자 정책)
+ *     -Domok.out.chatKB    (기본 32)  넘으면 채팅 버림
+ *     -Domok.out.collapseKB(기본 64)  넘으면 밀린 TURN은 마지막 것만,
+ *                                     밀린 금수판은 하나로 합침
+ *     -Domok.out.maxKB     (기본 256) 넘으면 연결 종료
+ * - 텍스트 프로토콜이 기본이며, PROTO BIN 협상 후에는
+ *   서버 → 클라이언트 메시지를 바이너리 프레임으로 인코딩
+ * - 받은 바이트가 있을 때마다 마지막 수신 시각 갱신 → Heartbeat가 PING / 유휴 종료
+ *   (PING은 PROTO 협상 또는 PONG을 보낸 적 있는 클라이언트에게만)
  * ------------------------------------------------------
  */
 
-public class Player implements Runnable {
+public class Player implements Runnable, MessageDecoder.Sink {
 
-    private Socket socket;
+    private Socket socket;          // THREAD 모드에서 사용
+    private NioConnection conn;     // NIO 모드에서 사용
     private OmokServer server;      // 로비 메시지 처리 담당
-    private Room room;              // 현재 들어간 방
+    private volatile Room room;     // 현재 들어간 방
     private String nickname = "Unknown"; // 기본 닉네임
-    private boolean inGame = false; // 게임 중 여부
+    private volatile boolean inGame = false; // 게임 중 여부 (방 우편함 스레드가 변경)
+    private volatile Room watching;  // 관전 중인 방 (로비 상태로 지냄)
+
+    private InputStream in;
+    private OutputStream out;
+
+    // 수신 바이트 → 텍스트 줄 / 바이너리 프레임
+    private final MessageDecoder decoder = new MessageDecoder();
+
+    // 느린 수신자 정책 한도 (바이트)
+    private static final long CHAT_LIMIT = Long.getLong("omok.out.chatKB", 32) * 1024;
+    private static final long COLLAPSE_LIMIT = Long.getLong("omok.out.collapseKB", 64) * 1024;
+    private static final long MAX_PENDING = Long.getLong("omok.out.maxKB", 256) * 1024;
+
+    private static final Metrics.Counter DROPPED_CHAT = Metrics.counter("out.droppedChat");
+    private static final Metrics.Counter COLLAPSED = Metrics.counter("out.collapsed");
+    private static final Metrics.Counter SLOW_CLOSED = Metrics.counter("out.slowDisconnects");
+
+    // 송신 큐 항목: 글쓴이가 가져가기 전이면 정책이 버리거나 바꿔 넣을 수 있음
+    private static final class Outgoing {
+        static final int QUEUED = 0, TAKEN = 1, DROPPED = 2;
+
+        final byte[] bytes;
+        final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        Outgoing(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
 
-    private BufferedReader in;
-    private PrintWriter out;
+    // 송신 큐: flush() 전까지 보낼 메시지(인코딩 완료)를 모아 둔다
+    private final Queue<Outgoing> outbox = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // 아직 소켓에 넘기지 못한 바이트 (NIO는 채널에 다 쓸 때까지)
+    private final AtomicLong pending = new AtomicLong();
+
+    // 큐에 마지막으로 넣은 TURN / 금수판 (방 우편함 스레드만 넣음)
+    private volatile Outgoing lastTurn;
+    private volatile Outgoing lastBan;
+
+    // 스트림 모드: 수신 스레드 / 대신 write 중인 writer 스레드가 있는지
+    private volatile Thread reader;
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicBoolean overflowed = new AtomicBoolean(false);
+
+    // 바이너리 프로토콜 협상 여부 (서버 → 클라이언트 인코딩)
+    private volatile boolean binary = false;
+
+    // 마지막 수신 시각 (System.nanoTime) / 마지막 PING 시각 (heartbeat 스레드 전용)
+    private volatile long lastActive = System.nanoTime();
+    long lastPing;
+
+    // PING에 답할 수 있는 클라이언트인지 (PROTO 협상 또는 PONG 수신)
+    private volatile boolean answersPing = false;
 
     public Player(Socket socket, OmokServer server) {
         this.socket = socket;
         this.server = server;
 
+        server.getSessionStats().opened();
+        server.getHeartbeat().register(this);
+
         try {
-            // 입력 스트림
-            in = new BufferedReader(
-                    new InputStreamReader(socket.getInputStream(), "UTF-8")
-            );
+            // 입력 스트림 (MessageDecoder가 직접 줄/프레임을 자름)
+            in = socket.getInputStream();
 
-            // 출력 스트림
-            out = new PrintWriter(
-                    new OutputStreamWriter(socket.getOutputStream(), "UTF-8"),
-                    true   // auto-flush
-            );
+            // 출력 스트림 (flush()에서 모아 쓰므로 버퍼/auto-flush 없이 사용)
+            out = socket.getOutputStream();
 
         } catch (Exception e) {
-            e.printStackTrace();
+            Log.error(Log.PLAYER, "[Player] 스트림 열기 실패", e);
         }
     }
 
+    // NIO 모드: 소켓 스트림 대신 NioConnection으로 송수신
+    Player(NioConnection conn, OmokServer server) {
+        this.conn = conn;
+        this.server = server;
+
+        server.getSessionStats().opened();
+        server.getHeartbeat().register(this);
+    }
+
+    // 연결 없는 플레이어 (서버 내부용: 벤치마크 등)
+    // 보낸 메시지는 flush() 때 버려진다
+    Player(String nickname) {
+        this.nickname = nickname;
+    }
+
+    // 서버 안에서 두는 컴퓨터 상대인지 (AiPlayer)
+    boolean isBot() {
+        return false;
+    }
+
     // ------------------------------------------
-    // 서버 → 클라이언트 메시지 전달
+    // 서버 → 클라이언트 메시지 전달 (송신 큐에 추가)
+    // 실제 전송은 flush() 호출 시점
     // ------------------------------------------
     public void send(String msg) {
-        out.println(msg);
+        send(Packet.text(msg));
+    }
+
+    void send(Packet packet) {
+
+        byte[] bytes = packet.encode(binary);
+        if (bytes.length == 0 || overflowed.get()) return;
+
+        int kind = packet.kind();
+        long backlog = pending.get();
+
+        // 밀리기 시작하면 채팅부터 버림
+        if (kind == Packet.CHAT && backlog >= CHAT_LIMIT) {
+            DROPPED_CHAT.increment();
+            return;
+        }
+
+        // 더 밀리면 아직 못 보낸 TURN / 금수판을 새 것으로 대체
+        if (backlog >= COLLAPSE_LIMIT && (kind == Packet.TURN || kind == Packet.BAN)) {
+            Outgoing prev = (kind == Packet.TURN) ? lastTurn : lastBan;
+            if (prev != null && prev.state.compareAndSet(Outgoing.QUEUED, Outgoing.DROPPED)) {
+                pending.addAndGet(-prev.bytes.length);
+                if (kind == Packet.BAN) bytes = Packet.collapseBan(prev.bytes, bytes);
+                COLLAPSED.increment();
+            }
+        }
+
+        // 그래도 한도를 넘으면 따라오지 못하는 클라이언트 → 연결 종료
+        if (pending.addAndGet(bytes.length) > MAX_PENDING && (conn != null || out != null)) {
+            overflow();
+            return;
+        }
+
+        Outgoing item = new Outgoing(bytes);
+        outbox.add(item);
+
+        if (kind == Packet.TURN) lastTurn = item;
+        else if (kind == Packet.BAN) lastBan = item;
+    }
+
+    private void overflow() {
+        if (!overflowed.compareAndSet(false, true)) return;
+
+        SLOW_CLOSED.increment();
+        Log.warn(Log.PLAYER, "[Player] 송신 지연 한도 초과, 연결 종료: " + nickname);
+
+        outbox.clear();
+        close();
+    }
+
+    // ------------------------------------------
+    // 송신 큐 전송 (호출한 스레드는 막히지 않음)
+    // - NIO: I/O 루프의 쓰기 큐에 넘기기만 함
+    // - 스트림 모드의 자기 수신 스레드: 바로 write (느리면 자기만 기다림)
+    // - 그 밖의 스레드: writer 풀 스레드 하나가 큐가 빌 때까지 대신 write
+    // ------------------------------------------
+    public void flush() {
+        if (outbox.isEmpty()) return;
+
+        if (conn != null || out == null || Thread.currentThread() == reader) {
+            writeOut();
+        } else if (draining.compareAndSet(false, true)) {
+            server.getWriters().execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        do {
+            writeOut();
+            draining.set(false);
+            // 내려놓는 사이 새로 쌓였으면 이어서 (다른 flush가 먼저 잡았으면 그쪽이 보냄)
+        } while (!outbox.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    // 쌓인 메시지를 한 번의 write로 전송
+    // 여러 스레드가 동시에 호출해도 순서가 섞이지 않도록 잠금
+    private void writeOut() {
+
+        flushLock.lock();
+        try {
+            List<byte[]> batch = new ArrayList<>();
+            int total = 0;
+
+            Outgoing item;
+            while ((item = outbox.poll()) != null) {
+                if (!item.state.compareAndSet(Outgoing.QUEUED, Outgoing.TAKEN)) continue;   // 정책이 버림
+                batch.add(item.bytes);
+                total += item.bytes.length;
+            }
+            if (total == 0) return;
+
+            // 2개 이상이면 하나의 배열로 이어 붙임
+            byte[] bytes = batch.get(0);
+            if (batch.size() > 1) {
+                bytes = new byte[total];
+                int pos = 0;
+                for (byte[] b : batch) {
+                    System.arraycopy(b, 0, bytes, pos, b.length);
+                    pos += b.length;
+                }
+            }
+
+            Metrics.BYTES_OUT.add(total);
+
+            if (conn != null) {
+                conn.write(bytes);          // 채널에 다 쓰면 written()
+            } else if (out == null) {
+                pending.addAndGet(-total);  // 연결 없는 플레이어: 버림
+            } else {
+                out.write(bytes);
+                out.flush();
+                pending.addAndGet(-total);
+            }
+
+        } catch (IOException e) {
+            // 끊긴 연결: 수신 루프 쪽에서 정리됨
+            outbox.clear();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // NIO: 쓰기 큐의 버퍼 하나를 채널에 다 씀 (I/O 루프 스레드)
+    void written(int bytes) {
+        pending.addAndGet(-bytes);
+    }
+
+    // ------------------------------------------
+    // 하트비트 (heartbeat 스레드에서 호출)
+    // ------------------------------------------
+    long lastActive() {
+        return lastActive;
+    }
+
+    boolean answersPing() {
+        return answersPing;
+    }
+
+    // PING 전송 (flush는 heartbeat 스레드를 막지 않음)
+    void ping(Packet ping) {
+        send(ping);
+        flush();
+    }
+
+    // 연결 강제 종료 → 수신 루프(스트림) / NioConnection이 onDisconnect로 정리
+    void close() {
+        if (conn != null) {
+            conn.close();
+        } else if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignore) {}
+        }
+    }
+
+    // ------------------------------------------
+    // PROTO BIN 요청 수락: 응답은 텍스트로, 이후 메시지는 프레임으로
+    // (로비에서 로그인 직후에만 호출되므로 다른 스레드의 send와 겹치지 않음)
+    // ------------------------------------------
+    void enableBinary() {
+        send(BinaryProtocol.HELLO_OK);
+        binary = true;
+        answersPing = true;   // 협상하는 클라이언트는 PING에도 답함
     }
 
     // ------------------------------------------
@@ -66,6 +324,26 @@ public class Player implements Runnable {
         return room;
     }
 
+    // ------------------------------------------
+    // 관전 (WATCH)
+    // ------------------------------------------
+    void setWatching(Room room) {
+        this.watching = room;
+    }
+
+    Room getWatching() {
+        return watching;
+    }
+
+    // 다른 방에 들어가거나 UNWATCH / 연결 종료 시 관전 해제
+    void stopWatching() {
+        Room r = watching;
+        if (r != null) {
+            watching = null;
+            r.removeSpectator(this);
+        }
+    }
+
     // ------------------------------------------
     // 게임 중 상태 플래그
     // ------------------------------------------
@@ -90,55 +368,170 @@ public class Player implements Runnable {
 
 
     // ------------------------------------------
-    // Player 스레드: 클라이언트 메시지 수신 루프
+    // Player 스레드: 클라이언트 메시지 수신 루프 (THREAD 모드)
     // ------------------------------------------
     @Override
     public void run() {
 
+        reader = Thread.currentThread();
+
         try {
-            String msg;
+            byte[] buf = new byte[4096];
+            ByteBuffer bb = ByteBuffer.wrap(buf);
+            int n;
 
             // 클라이언트로부터 메시지 계속 읽기
-            while ((msg = in.readLine()) != null) {
-
-                msg = msg.trim();
-                if (msg.isEmpty()) continue;
-
-                System.out.println("[RECV " + nickname + "] " + msg);
-
-                // --------------------------
-                // 게임 중이면 Room에서 처리
-                // --------------------------
-                if (inGame && room != null) {
-                    room.handleGameMessage(this, msg);
-                }
-
-                // --------------------------
-                // 로비 상태 → OmokServer 처리
-                // --------------------------
-                else {
-                    server.handleLobbyCommand(this, msg);
+            while ((n = in.read(buf)) != -1) {
+                bb.limit(n).position(0);
+                if (!onBytes(bb)) {
+                    Log.warn(Log.PLAYER, "[Player] 잘못된 메시지, 연결 종료: " + nickname);
+                    break;
                 }
             }
 
         } catch (Exception e) {
-            System.out.println("[Player] 연결 끊김: " + nickname);
+            Log.info(Log.PLAYER, "[Player] 연결 끊김: " + nickname);
         }
 
         finally {
-            // ------------------------------------------
-            // 연결 종료 시 방에서 제거 + 상태 초기화
-            // ------------------------------------------
+            onDisconnect();
+
             try {
+                socket.close();
+            } catch (Exception ignore) {}
+        }
+    }
 
-                if (room != null) {
-                    room.removePlayer(this);
-                }
 
-                inGame = false;  // 안전하게 초기화
-                socket.close();
+    // ------------------------------------------
+    // 수신 바이트 처리 (THREAD / NIO 공통)
+    // false면 연결 종료 대상
+    // ------------------------------------------
+    boolean onBytes(ByteBuffer buf) {
+        lastActive = System.nanoTime();
+        Metrics.BYTES_IN.add(buf.remaining());
+        return decoder.feed(buf, this);
+    }
 
-            } catch (Exception ignore) {}
+    // 텍스트 한 줄
+    @Override
+    public void onLine(String line) {
+        onMessage(line);
+    }
+
+    // 바이너리 프레임
+    @Override
+    public void onFrame(int op, byte[] payload, int off, int len) {
+
+        // 텍스트를 담은 프레임 (채팅, 로비 명령 등)
+        if (op == BinaryProtocol.TEXT) {
+            onMessage(BinaryProtocol.toText(op, payload, off, len));
+            return;
+        }
+
+        if (op == BinaryProtocol.PLACE && len == 1) {
+            int pos = payload[off] & 0xFF;
+            onCommand(op, BinaryProtocol.row(pos), BinaryProtocol.col(pos));
+        } else if (len == 0 && BinaryProtocol.commandName(op) != null) {
+            onCommand(op, -1, -1);
+        } else {
+            Metrics.command(op).increment();
+            if (Log.RECV.on(Log.DEBUG))
+                Log.write("[RECV " + nickname + "] " + BinaryProtocol.toText(op, payload, off, len));
+            send("ERROR UNKNOWNCMD");
+            flush();
         }
     }
+
+    // 게임 명령 (텍스트 줄 / 프레임 공통, 문자열 없이 opcode + 좌표)
+    @Override
+    public void onCommand(int op, int r, int c) {
+
+        Metrics.command(op).increment();
+
+        // 메시지마다 찍는 추적 로그: 꺼져 있으면 문자열도 만들지 않음
+        if (Log.RECV.on(Log.DEBUG))
+            Log.write("[RECV " + nickname + "] " + commandText(op, r, c));
+
+        if (inGame && room != null) {
+            room.handleCommand(this, op, r, c);
+        } else {
+            // 로비에서는 일반 텍스트 명령과 똑같이 처리 (드문 경우)
+            server.handleLobbyCommand(this, commandText(op, r, c));
+        }
+
+        flush();
+    }
+
+    private static String commandText(int op, int r, int c) {
+        return (op == BinaryProtocol.PLACE)
+                ? "PLACE " + r + " " + c
+                : BinaryProtocol.commandName(op);
+    }
+
+
+    // ------------------------------------------
+    // 수신한 한 줄 처리 (THREAD / NIO 공통)
+    // ------------------------------------------
+    void onMessage(String msg) {
+
+        msg = msg.trim();
+        if (msg.isEmpty()) return;
+
+        Metrics.message(msg);
+
+        if (Log.RECV.on(Log.DEBUG))
+            Log.write("[RECV " + nickname + "] " + msg);
+
+        // 하트비트: 수신 시각은 onBytes에서 이미 갱신됨
+        if (msg.equals("PONG")) {
+            answersPing = true;
+            return;
+        }
+        if (msg.equals("PING")) {
+            send("PONG");
+            flush();
+            return;
+        }
+
+        // --------------------------
+        // 게임 중이면 Room에서 처리
+        // --------------------------
+        if (inGame && room != null) {
+            room.handleGameMessage(this, msg);
+        }
+
+        // --------------------------
+        // 로비 상태 → OmokServer 처리
+        // --------------------------
+        else {
+            server.handleLobbyCommand(this, msg);
+        }
+
+        // 이번 메시지 처리 중 쌓인 응답 전송
+        flush();
+    }
+
+
+    // ------------------------------------------
+    // 연결 종료 시 방에서 제거 + 상태 초기화
+    // ------------------------------------------
+    void onDisconnect() {
+
+        server.getSessionStats().closed();
+        server.getHeartbeat().unregister(this);
+        server.getRoomManager().unsubscribe(this);
+        server.getRoomManager().cancelMatch(this);
+
+        try {
+            stopWatching();
+
+            if (room != null) {
+                room.removePlayer(this);
+            }
+
+            inGame = false;  // 안전하게 초기화
+
+        } catch (Exception ignore) {}
+    }
 }
@@ -4,6 +4,13 @@ import java.awt.Point;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import Common.BinaryProtocol;
 
 /*
  * Room (금수 + 생명 + 찬스 + 기본 오목 + 멀티룸 완전 지원)
@@ -13,82 +20,384 @@ import java.util.Stack;
  * - 두 번째 플레이어: 백(W)
  * - 금수(6목, 33, 44) 판정 완전 적용
  * - 생명 시스템(잘못된 착수 시 -1)
- * - 찬스(전체 보드 showAll)
+ * - 찬스(전체 보드 showAll + 힌트)
+ *   힌트(추천 수/위협 칸)는 AnalysisService 풀에서 계산해 우편함으로 돌아오고,
+ *   그 사이 판이 바뀌면(착수/무르기/RESET/퇴장) 취소하고 보내지 않음
  * - RESET, END 처리
  * 
  * ※ 멀티룸 구조(OmokServer/RoomManager/Player)와 100% 호환됨
+ *
+ * - 금수판은 착수/무르기 주변만 다시 판정하고, 흑 차례일 때만 갱신
+ *
+ * - 게임 상태(board, turn, history, isBan ...)는 방 전용 우편함(Mailbox)
+ *   안에서만 변경된다. 두 플레이어의 메시지가 동시에 와도
+ *   공용 스케줄러 풀이 방 하나씩 순서대로 처리하므로 잠금이 필요 없음
+ *
+ * - 상태 변화(입장/퇴장, 착수, 무르기, 생명, 찬스, RESET, END)는 Journal에 기록
+ *   재시작 후에는 RoomState로 다시 세워지고, 원래 닉네임으로
+ *   접속(NICK)하거나 JOINROOM 하면 자기 자리로 돌아와 이어서 둔다
+ *   holdSec 안에 다시 시작되지 않으면 expireReservation()으로 방을 닫음
+ * - capture(): 우편함 안에서 현재 상태를 RoomState로 복사 (SNAPSHOT)
+ *
+ * - 컴퓨터 상대(AiPlayer)도 보통 Player처럼 앉는다
+ *   AI 대국은 저널/스냅샷 복구 대상이 아니고, 사람이 나가면 AI도 함께 퇴장
+ *
+ * - 관전자(WATCH)는 인원 제한 없이 붙어서 MOVE/UNDO/WIN/CHAT 등
+ *   방송 메시지를 같이 받는다 (금수판, 개인별 TURN은 제외)
+ *   Packet은 한 번 인코딩한 바이트를 모든 수신자가 공유
  * ------------------------------------------------------------------
  */
 
 public class Room {
 
+    private final int id;            // 저널에서 방을 구분하는 번호
     private String roomName;
     private RoomManager manager;
 
-    private List<Player> players = new ArrayList<>();
+    // 로비 스레드(입장)와 플레이어 스레드(퇴장)가 동시에 접근
+    private List<Player> players = new CopyOnWriteArrayList<>();
+
+    // 관전자 (우편함 스레드에서만 변경)
+    private final List<Player> spectators = new ArrayList<>();
+
+    // 좌석 수 (0~2), CLOSED면 이미 정리된 방 → 더 이상 입장 불가
+    // 입장은 CAS로 좌석을 먼저 확보하므로 2명을 넘는 입장이 생기지 않음
+    private static final int CLOSED = -1;
+    private final AtomicInteger seats = new AtomicInteger();
+
+    // 자리별로 앉은 플레이어 (0: 흑, 1: 백, null = 빈 자리)
+    // 흑이 나가도 백은 1번 자리 그대로 → 다음 입장자가 흑 자리에 앉음
+    // players는 항상 자리 순서 (자리 변경은 seated 잠금 안에서)
+    private final Player[] seated = new Player[2];
 
-    private final int SIZE = 15;
+    // 재시작으로 복구된 방: 자리별 원래 닉네임
+    // 두 자리가 다 차서 게임이 다시 시작되면 null (이후는 보통 방과 같음)
+    private volatile String[] reserved;
 
-    // 게임판 / 금수판
-    private String[][] board = new String[SIZE][SIZE];
-    private boolean[][] isBan = new boolean[SIZE][SIZE];
+    private final int SIZE = Board.SIZE;
+
+    // 게임판(흑/백 비트보드) / 금수판
+    private final Board board = new Board();
+    private final BanTracker bans = new BanTracker();
+
+    // 마지막으로 클라이언트에 보낸 금수판 (null이면 다음 전송은 전체 비트맵)
+    private boolean[][] sentBan = null;
     
     // 착수 기록을 저장할 스택 추가
     private Stack<Point> history = new Stack<>();
     
     // 생명(흑/백)
-    private final int MAX_LIFE = 3;
+    private final int MAX_LIFE = RoomState.MAX_LIFE;
     private int lifeB = MAX_LIFE;
     private int lifeW = MAX_LIFE;
 
     // 찬스(흑/백)
-    private final int MAX_CHANCE = 2;
+    private final int MAX_CHANCE = RoomState.MAX_CHANCE;
     private int chanceB = MAX_CHANCE;
     private int chanceW = MAX_CHANCE;
 
+    // 계산 중인 힌트 / 판이 바뀔 때마다 증가하는 번호 (우편함 스레드)
+    private final List<Future<?>> hints = new ArrayList<>();
+    private int position = 0;
+
     private char turn = 'B';      // 흑 시작
     private boolean gameOver = false;
+    private boolean started = false;
 
+    // 이 방의 모든 게임 처리를 순서대로 실행하는 우편함
+    private final Mailbox mailbox;
+
+    // AI가 앉으면 DISABLED로 바뀜 (우편함 스레드)
+    private Journal journal;
+    private volatile boolean hasBot;
+
+    // 새 방 (저널 기록은 목록에 올라간 뒤 open()에서)
     public Room(String roomName, RoomManager manager) {
+        this(manager.nextRoomId(), roomName, manager);
+    }
+
+    // 저널에서 복구한 방 (기록은 압축 파일에 이미 있음)
+    Room(RoomState s, RoomManager manager) {
+        this(s.id, s.name, manager);
+
+        for (int m : s.moves) {
+            board.set(RoomState.row(m), RoomState.col(m), RoomState.stone(m));
+            history.push(new Point(RoomState.row(m), RoomState.col(m)));
+        }
+        turn = s.turn;
+        gameOver = s.gameOver;
+        started = s.started;
+        lifeB = s.lifeB;
+        lifeW = s.lifeW;
+        chanceB = s.chanceB;
+        chanceW = s.chanceW;
+
+        reserved = s.seats.clone();
+    }
+
+    private Room(int id, String roomName, RoomManager manager) {
+        this.id = id;
         this.roomName = roomName;
         this.manager = manager;
+        this.journal = manager.getJournal();
+        this.mailbox = new Mailbox("Room " + roomName, manager.getScheduler());
     }
 
     public String getRoomName() { return roomName; }
     public int getPlayerCount() { return players.size(); }
     public List<Player> getPlayers() { return players; }
 
-    public boolean isFull() { return players.size() >= 2; }
+    public boolean isFull() { return seats.get() >= 2 || seats.get() == CLOSED; }
+
+
+    // ---------------------------------------------------------
+    //  새 방 열기 (RoomManager)
+    //  holdSeats: 목록에 올리기 전, 처음 앉을 사람 수만큼 좌석을 잡아 둠
+    //  open: 목록에 올린 뒤 저널에 방을 열고 잡아 둔 좌석에 앉힘
+    // ---------------------------------------------------------
+    void holdSeats(int n) {
+        seats.set(n);
+    }
+
+    void open(Player... first) {
+        journal.open(id, roomName);
+        for (Player p : first) sit(p);
+    }
 
 
     // ---------------------------------------------------------
     //  플레이어 입장
+    //  좌석을 확보하지 못하면(꽉 참/정리됨) false
     // ---------------------------------------------------------
-    public void addPlayer(Player p) {
+    public boolean addPlayer(Player p) {
+
+        int n;
+        do {
+            n = seats.get();
+            if (n == CLOSED || n >= 2) return false;
+        } while (!seats.compareAndSet(n, n + 1));
+
+        return sit(p);
+    }
+
+    // 좌석 확보 후 실제로 앉힘
+    private boolean sit(Player p) {
+
+        String[] res = reserved;
+        int seat;
+
+        if (res == null) {
+            seat = takeSeat(p);
+            int s = seat;
+            mailbox.post(() -> journal.seat(id, s, p.getNickname()));
+
+            // AI 대국은 복구하지 않음: 저널에서는 여기서 끝난 방으로 처리
+            if (p.isBot()) {
+                hasBot = true;
+                mailbox.post(() -> {
+                    journal.end(id);
+                    journal = Journal.DISABLED;
+                });
+            }
+        } else {
+            seat = claimSeat(res, p);
+            if (seat < 0) {
+                // 그 사이 예약이 만료돼 닫혔으면 CLOSED 유지
+                seats.getAndUpdate(k -> (k == CLOSED) ? k : k - 1);
+                return false;
+            }
+        }
 
-        players.add(p);
         p.setRoom(this);
+        manager.roomChanged(this);
+
+        // 복구된 방은 claimSeat에서 목록에 넣기 전에 이미 보냄
+        if (res == null) p.send("JOINED " + roomName + (seat == 0 ? " B" : " W"));
+
+        Log.info(Log.ROOM, "[Room " + roomName + "] 입장: " + p.getNickname());
+        return true;
+    }
+
+
+    // 보통 방: 비어 있는 자리 중 앞 자리 (좌석 CAS로 빈 자리는 반드시 있음)
+    private int takeSeat(Player p) {
+        synchronized (seated) {
+            int seat = (seated[0] == null) ? 0 : 1;
+            seated[seat] = p;
+            players.add(playerIndex(seat), p);
+            return seat;
+        }
+    }
 
-        if (players.size() == 1) {
-            p.send("JOINED " + roomName + " B");
-        } else if (players.size() == 2) {
-            p.send("JOINED " + roomName + " W");
+    // 플레이어 목록은 항상 흑, 백 순서가 되도록 앞 자리 사람 수만큼 뒤에 끼워 넣음
+    private int playerIndex(int seat) {
+        int index = 0;
+        for (int i = 0; i < seat; i++) {
+            if (seated[i] != null) index++;
         }
+        return index;
+    }
+
+    // 복구된 방의 자리 찾기: 내 닉네임으로 예약된 자리 → 예약 없는 빈 자리
+    private int claimSeat(String[] res, Player p) {
+        synchronized (seated) {
+            if (seats.get() == CLOSED) return -1;   // 예약 만료
+
+            int seat = -1;
+            for (int i = 0; i < 2 && seat < 0; i++) {
+                if (seated[i] == null && res[i] != null && res[i].equals(p.getNickname())) seat = i;
+            }
+            for (int i = 0; i < 2 && seat < 0; i++) {
+                if (seated[i] == null && res[i] == null) seat = i;
+            }
+            if (seat < 0) return -1;
+
+            int index = playerIndex(seat);
+            // 두 사람이 동시에 돌아오면 상대 쪽이 바로 게임을 시작할 수 있으므로
+            // JOINED가 START보다 먼저 가도록 목록에 넣기 전에 전송
+            p.setRoom(this);
+            p.send("JOINED " + roomName + (seat == 0 ? " B" : " W"));
+
+            seated[seat] = p;
+            players.add(index, p);
 
-        System.out.println("[Room " + roomName + "] 입장: " + p.getNickname());
+            // 예약 자리는 저널에 이미 있음
+            if (res[seat] == null) {
+                int s = seat;
+                mailbox.post(() -> journal.seat(id, s, p.getNickname()));
+            }
+            return seat;
+        }
     }
 
 
     // ---------------------------------------------------------
     //  퇴장 처리
+    //  마지막 사람이 나가면 방을 닫고 목록에서 제거
+    //  진행 중인 게임 처리와 섞이지 않도록 우편함에서 실행
     // ---------------------------------------------------------
     public void removePlayer(Player p) {
+        mailbox.post(() -> doRemovePlayer(p));
+    }
 
-        players.remove(p);
+    private void doRemovePlayer(Player p) {
 
-        if (players.isEmpty()) {
-            manager.removeRoom(roomName);
+        cancelHints();
+
+        String[] res = reserved;
+
+        // 복구 후 아직 다시 시작 전이면 예약은 그대로 두고 자리만 비움
+        synchronized (seated) {
+            if (!players.remove(p)) return;
+            for (int i = 0; i < 2; i++) {
+                if (seated[i] != p) continue;
+                seated[i] = null;
+                if (res == null || res[i] == null) journal.leave(id, i);
+            }
         }
+
+        if (p.getRoom() == this) p.setRoom(null);
+
+        // 복구된 방은 원래 플레이어가 돌아올 때까지 비어 있어도 유지
+        if (seats.decrementAndGet() == 0 && reserved == null && seats.compareAndSet(0, CLOSED)) {
+            journal.end(id);
+            releaseSpectators();
+            manager.removeRoom(this);
+        } else {
+            manager.roomChanged(this);
+        }
+
+        // 사람이 모두 나가면 AI도 퇴장 → 방 정리
+        if (!p.isBot() && !players.isEmpty() && players.stream().allMatch(Player::isBot)) {
+            for (Player bot : new ArrayList<>(players)) doRemovePlayer(bot);
+        }
+    }
+
+
+    // ---------------------------------------------------------
+    //  복구된 방의 예약 만료 (RoomManager 타이머)
+    //  그때까지 게임이 다시 시작되지 않았으면 앉아 있던 사람에게
+    //  END를 보내 로비로 돌려보내고 방을 닫음
+    //  두 자리가 다 찼으면 곧 시작될 게임이므로 그대로 둠
+    // ---------------------------------------------------------
+    void expireReservation() {
+        mailbox.post(() -> {
+            String[] res = reserved;
+            if (res == null || seats.get() == CLOSED) return;
+
+            synchronized (seated) {
+                if (players.size() >= 2) return;
+                seats.set(CLOSED);
+                seated[0] = seated[1] = null;
+            }
+
+            cancelHints();
+
+            Packet end = Packet.text("END");
+            for (Player p : players) {
+                p.setRoom(null);
+                p.send(end);
+                p.flush();
+            }
+            players.clear();
+
+            reserved = null;
+
+            journal.end(id);
+            releaseSpectators();
+            manager.reservationsDone(this);
+            manager.removeRoom(this);
+
+            Log.info(Log.ROOM, "[Room " + roomName + "] 복구 예약 만료, 방 닫음");
+        });
+    }
+
+
+    // ---------------------------------------------------------
+    //  관전
+    //  붙는 순간의 판(지금까지의 착수, 생명, 찬스)을 먼저 보내고
+    //  이후 방송을 같이 받음 → 우편함 안이라 빠지거나 겹치는 수가 없음
+    // ---------------------------------------------------------
+    public void addSpectator(Player p) {
+        mailbox.post(() -> {
+            if (seats.get() == CLOSED) {
+                p.setWatching(null);
+                p.send("ERROR NOROOM");
+                p.flush();
+                return;
+            }
+
+            spectators.add(p);
+
+            String black = (players.size() > 0) ? players.get(0).getNickname() : "-";
+            String white = (players.size() > 1) ? players.get(1).getNickname() : "-";
+            p.send("WATCHING " + roomName + " " + black + " " + white);
+            for (Point m : history) {
+                p.send(Packet.move(m.x, m.y, (board.get(m.x, m.y) == Board.BLACK) ? 'B' : 'W'));
+            }
+            p.send(Packet.life('B', lifeB));
+            p.send(Packet.life('W', lifeW));
+            p.send(Packet.chances('B', chanceB));
+            p.send(Packet.chances('W', chanceW));
+            p.flush();
+
+            Log.info(Log.ROOM, "[Room " + roomName + "] 관전: " + p.getNickname() + " (" + spectators.size() + "명)");
+        });
+    }
+
+    public void removeSpectator(Player p) {
+        mailbox.post(() -> spectators.remove(p));
+    }
+
+    // 방이 닫힐 때 관전자에게 END를 보내고 로비로 돌려보냄
+    private void releaseSpectators() {
+        Packet end = Packet.text("END");
+        for (Player p : spectators) {
+            p.setWatching(null);
+            p.send(end);
+            p.flush();
+        }
+        spectators.clear();
     }
 
 
@@ -96,34 +405,131 @@ public class Room {
     //  두 명이면 바로 게임 시작
     // ---------------------------------------------------------
     public void startGame() {
+        mailbox.post(this::doStartGame);
+    }
+
+    private void doStartGame() {
 
         if (players.size() < 2) return;
 
         Player black = players.get(0);
         Player white = players.get(1);
 
+        // 두 입장 스레드가 모두 시작을 요청한 경우 한 번만
+        if (black.isInGame() && white.isInGame()) return;
+
         black.setInGame(true);
         white.setInGame(true);
 
+        // 복구된 게임이면 예약을 풀고 지금까지의 판을 다시 보냄
+        boolean resumed = (reserved != null);
+        reserved = null;
+        started = true;
+        journal.start(id);
+        if (resumed) manager.reservationsDone(this);
+
         black.send("START B");
         white.send("START W");
 
+        if (resumed) sendGameState();
+
         // 턴 전송 시 상대방 닉네임도 함께 전송
-        black.send("TURN B " + white.getNickname());
-        white.send("TURN B " + black.getNickname());
+        black.send(Packet.turn(turn, white.getNickname()));
+        white.send(Packet.turn(turn, black.getNickname()));
 
-        // 금수 초기화 후 전송
+        // 금수 초기화 후 전체 비트맵 전송
+        bans.markAll();
         updateBan();
+        sentBan = null;
         sendBanAll();
+        flushAll();
+
+        Log.info(Log.ROOM, "[Room " + roomName + "] 게임 " + (resumed ? "재개" : "시작"));
+    }
 
-        System.out.println("[Room " + roomName + "] 게임 시작");
+    // 착수 기록 순서대로 MOVE + 생명/찬스
+    private void sendGameState() {
+        for (Point m : history) {
+            broadcast(Packet.move(m.x, m.y, (board.get(m.x, m.y) == Board.BLACK) ? 'B' : 'W'));
+        }
+        broadcast(Packet.life('B', lifeB));
+        broadcast(Packet.life('W', lifeW));
+        broadcast(Packet.chances('B', chanceB));
+        broadcast(Packet.chances('W', chanceW));
+    }
+
+
+    // ---------------------------------------------------------
+    //  상태 복사 (스냅샷)
+    //  우편함에서 실행되므로 명령 처리 도중의 상태는 보이지 않음
+    //  이미 정리된 방이면 null
+    // ---------------------------------------------------------
+    CompletableFuture<RoomState> capture() {
+        CompletableFuture<RoomState> f = new CompletableFuture<>();
+        mailbox.post(() -> f.complete(seats.get() == CLOSED || hasBot ? null : toState()));
+        return f;
+    }
+
+    private RoomState toState() {
+
+        RoomState s = new RoomState(id, roomName);
+
+        // 자리 두 개를 그대로 (빈 자리는 null)
+        // 복구 후 다시 시작 전이면 예약 닉네임도 좌석으로 저장
+        String[] res = reserved;
+        synchronized (seated) {
+            for (int i = 0; i < 2; i++) {
+                if (res != null && res[i] != null) s.seats[i] = res[i];
+                else if (seated[i] != null) s.seats[i] = seated[i].getNickname();
+            }
+        }
+
+        for (Point m : history) {
+            s.moves.add(RoomState.move(m.x, m.y, board.get(m.x, m.y)));
+        }
+        s.started = started;
+        s.turn = turn;
+        s.gameOver = gameOver;
+        s.lifeB = lifeB;
+        s.lifeW = lifeW;
+        s.chanceB = chanceB;
+        s.chanceW = chanceW;
+        return s;
     }
 
 
     // ---------------------------------------------------------
     //  클라이언트 게임 메시지를 방에서 처리
+    //  호출한 스레드에서는 우편함에 넣기만 하고 바로 반환
+    //  이벤트 하나가 만든 메시지는 마지막에 플레이어별로 한 번에 전송
     // ---------------------------------------------------------
     public void handleGameMessage(Player p, String msg) {
+        mailbox.post(() -> {
+            dispatch(p, msg);
+            flushAll();
+        });
+    }
+
+    // 이미 opcode + 좌표로 해석된 게임 명령 (MessageDecoder가 바이트에서 직접 해석)
+    public void handleCommand(Player p, int op, int r, int c) {
+        mailbox.post(() -> {
+            dispatch(p, op, r, c);
+            flushAll();
+        });
+    }
+
+    // 다른 스레드에서 계산한 착수 (AiPlayer)
+    // 우편함에서 valid가 아직 참일 때만 둠 → 그 사이 판이 바뀌었으면 버림
+    void placeIf(Player p, int r, int c, BooleanSupplier valid) {
+        mailbox.post(() -> {
+            if (!valid.getAsBoolean()) return;
+            dispatch(p, BinaryProtocol.PLACE, r, c);
+            flushAll();
+        });
+    }
+
+    // 텍스트 그대로 들어온 메시지 (채팅, 형식이 조금 다른 명령)
+    private void dispatch(Player p, String msg) {
 
         if (msg.startsWith("PLACE")) {
             String[] sp = msg.split(" ");
@@ -132,35 +538,53 @@ public class Room {
             int r = Integer.parseInt(sp[1]);
             int c = Integer.parseInt(sp[2]);
 
-            char color = (players.get(0) == p) ? 'B' : 'W';
-            handlePlace(p, color, r, c);
+            dispatch(p, BinaryProtocol.PLACE, r, c);
         }
 
-        else if (msg.equals("USECHANCE")) {
-            handleChance(p);
-        }
-
-        else if (msg.equals("RESET")) {
-            reset();
-        }
-        
-        // 무르기 관련 명령어 처리 추가
-        else if (msg.equals("CANCEL")) { // 무르기 요청
-            handleCancelRequest(p);
-        }
-        else if (msg.equals("CANCEL_YES")) { // 상대방이 수락함
-            performUndo();
-        }
-        else if (msg.equals("CANCEL_NO")) {  // 상대방이 거절함
-            handleCancelDeny(p);
-        }
         else if (msg.startsWith("CHAT ")) {
             // CHAT 닉네임 메시지 형식으로 받음
             handleChat(p, msg.substring(5)); // "CHAT " 이후 전체 전달
         }
 
-        else if (msg.equals("END")) {
-            endGame();
+        else {
+            int op = BinaryProtocol.commandOp(msg);
+            if (op >= 0) dispatch(p, op, -1, -1);
+        }
+    }
+
+    // 우편함 스레드에서 실행 (벤치마크는 단일 스레드에서 직접 호출)
+    void dispatch(Player p, int op, int r, int c) {
+
+        switch (op) {
+            case BinaryProtocol.PLACE:
+                long start = System.nanoTime();
+                char color = (players.get(0) == p) ? 'B' : 'W';
+                handlePlace(p, color, r, c);
+                Metrics.HANDLE_PLACE.recordSince(start);
+                break;
+
+            case BinaryProtocol.USECHANCE:
+                handleChance(p);
+                break;
+
+            case BinaryProtocol.RESET:
+                reset();
+                break;
+
+            // 무르기 관련 명령어 처리
+            case BinaryProtocol.CANCEL:     // 무르기 요청
+                handleCancelRequest(p);
+                break;
+            case BinaryProtocol.CANCEL_YES: // 상대방이 수락함
+                performUndo();
+                break;
+            case BinaryProtocol.CANCEL_NO:  // 상대방이 거절함
+                handleCancelDeny(p);
+                break;
+
+            case BinaryProtocol.END:
+                endGame();
+                break;
         }
     }
     
@@ -168,10 +592,8 @@ public class Room {
         // 클라이언트에서 "닉네임 메시지" 형식으로 보냄
         String fullMsg = "CHAT " + message;
 
-        // 방에 있는 모든 사람에게 전송
-        for (Player p : players) {
-            p.send(fullMsg);
-        }
+        // 방에 있는 모든 사람(관전자 포함)에게 전송
+        broadcast(fullMsg);
     }
 
     
@@ -188,40 +610,45 @@ public class Room {
         if (r < 0 || r >= SIZE || c < 0 || c >= SIZE) return;
 
         // 금수
-        if (color == 'B' && isBan[r][c]) {
+        if (color == 'B' && bans.isBan(r, c)) {
             p.send("ERROR FORBIDDEN");
             return;
         }
 
         // 이미 돌 있음 → 생명 감소
-        if (board[r][c] != null) {
+        if (!board.isEmpty(r, c)) {
             decreaseLife(p);
             return;
         }
 
         // 정상 착수
-        board[r][c] = String.valueOf(color);
+        board.set(r, c, stone(color));
+        cancelHints();
         // ★ 무르기 스택에 기록 추가
         history.push(new Point(r, c));
-        broadcast("MOVE " + r + " " + c + " " + color);
+        bans.markDirty(r, c);
+
+        boolean win = board.isWin(r, c, stone(color));
+        journal.place(id, r, c, color, win);
+        broadcast(Packet.move(r, c, color));
 
         // 승리 처리
-        if (checkWin(r, c, String.valueOf(color))) {
+        if (win) {
             gameOver = true;
-            broadcast("WIN " + color);
+            broadcast(Packet.win(color));
             return;
         }
 
-        // 금수 갱신
-        updateBan();
-        sendBanAll();
-
         // 턴 변경
         turn = (turn == 'B') ? 'W' : 'B';
+
+        // 금수 갱신 (흑 차례가 됐을 때만)
+        if (updateBan()) sendBanAll();
+
         Player black = players.get(0);
         Player white = players.get(1);
-        black.send("TURN " + turn + " " + white.getNickname());
-        white.send("TURN " + turn + " " + black.getNickname());
+        black.send(Packet.turn(turn, white.getNickname()));
+        white.send(Packet.turn(turn, black.getNickname()));
     }
 
 
@@ -234,16 +661,18 @@ public class Room {
 
         if (color == 'B') {
             lifeB--;
-            broadcast("LIFE B " + lifeB);
+            journal.life(id, 'B', lifeB);
+            broadcast(Packet.life('B', lifeB));
             if (lifeB <= 0) {
-                broadcast("WIN W");
+                broadcast(Packet.win('W'));
                 gameOver = true;
             }
         } else {
             lifeW--;
-            broadcast("LIFE W " + lifeW);
+            journal.life(id, 'W', lifeW);
+            broadcast(Packet.life('W', lifeW));
             if (lifeW <= 0) {
-                broadcast("WIN B");
+                broadcast(Packet.win('B'));
                 gameOver = true;
             }
         }
@@ -256,14 +685,47 @@ public class Room {
     private void handleChance(Player p) {
 
         char color = (players.get(0) == p) ? 'B' : 'W';
+        boolean used = false;
 
         if (color == 'B') {
-            if (chanceB > 0) chanceB--;
-            broadcast("CHANCES B " + chanceB);
+            if (chanceB > 0) { chanceB--; used = true; }
+            journal.chance(id, 'B', chanceB);
+            broadcast(Packet.chances('B', chanceB));
         } else {
-            if (chanceW > 0) chanceW--;
-            broadcast("CHANCES W " + chanceW);
+            if (chanceW > 0) { chanceW--; used = true; }
+            journal.chance(id, 'W', chanceW);
+            broadcast(Packet.chances('W', chanceW));
+        }
+
+        if (used && !gameOver) requestHint(p, stone(color));
+    }
+
+    // 지금 판을 복사해 분석 풀에 넘기고, 결과는 우편함에서 판이 그대로일 때만 전송
+    private void requestHint(Player p, int color) {
+
+        Board snapshot = new Board();
+        snapshot.copyFrom(board);
+        int at = position;
+
+        Future<?> f = manager.getAnalysis().submit(snapshot, color, hint -> mailbox.post(() -> {
+            if (at != position || !players.contains(p)) return;
+            p.send(hint);
+            p.flush();
+        }));
+
+        if (f == null) {
+            p.send("ERROR HintBusy");
+            return;
         }
+        hints.removeIf(Future::isDone);
+        hints.add(f);
+    }
+
+    // 판이 바뀜 → 계산 중인 힌트는 쓸모 없음
+    private void cancelHints() {
+        position++;
+        for (Future<?> f : hints) f.cancel(true);
+        hints.clear();
     }
 
     // 무르기 요청 처리
@@ -294,17 +756,20 @@ public class Room {
 
         // 가장 마지막 착수 위치
         Point target = history.pop();
-        String targetColor = board[target.x][target.y];
+        int targetColor = board.get(target.x, target.y);
 
         // 돌 지우기
-        board[target.x][target.y] = null;
+        board.clear(target.x, target.y);
+        bans.markDirty(target.x, target.y);
+        cancelHints();
+        journal.undo(id);
 
         // 같은 색의 이전 돌 찾기
         int prevR = -1, prevC = -1;
 
         for (int i = history.size() - 1; i >= 0; i--) {
             Point p = history.get(i);
-            if (board[p.x][p.y] != null && board[p.x][p.y].equals(targetColor)) {
+            if (board.get(p.x, p.y) == targetColor) {
                 prevR = p.x;
                 prevC = p.y;
                 break;
@@ -312,20 +777,17 @@ public class Room {
         }
 
         // 클라이언트에게 UNDO 명령 전송
-        broadcast("UNDO " 
-                + target.x + " " + target.y + " " 
-                + prevR + " " + prevC + " " + targetColor);
+        broadcast(Packet.undo(target.x, target.y, prevR, prevC, (targetColor == Board.BLACK) ? 'B' : 'W'));
 
         // 턴 되돌리기
         turn = (turn == 'B') ? 'W' : 'B';
         Player black = players.get(0);
         Player white = players.get(1);
-        black.send("TURN " + turn + " " + white.getNickname());
-        white.send("TURN " + turn + " " + black.getNickname());
+        black.send(Packet.turn(turn, white.getNickname()));
+        white.send(Packet.turn(turn, black.getNickname()));
 
         // 금수 재계산
-        updateBan();
-        sendBanAll();
+        if (updateBan()) sendBanAll();
 
         broadcast("CHAT [알림] 무르기가 승인되었습니다.");
     }
@@ -335,8 +797,10 @@ public class Room {
     // ---------------------------------------------------------
     private void reset() {
 
-        board = new String[SIZE][SIZE];
-        isBan = new boolean[SIZE][SIZE];
+        board.clearAll();
+        history.clear();
+        bans.markAll();
+        cancelHints();
 
         lifeB = MAX_LIFE;
         lifeW = MAX_LIFE;
@@ -345,18 +809,20 @@ public class Room {
 
         turn = 'B';
         gameOver = false;
+        journal.reset(id);
 
         broadcast("RESET");
         Player black = players.get(0);
         Player white = players.get(1);
-        black.send("TURN B " + white.getNickname());
-        white.send("TURN B " + black.getNickname());
-        broadcast("LIFE B " + lifeB);
-        broadcast("LIFE W " + lifeW);
-        broadcast("CHANCES B " + chanceB);
-        broadcast("CHANCES W " + chanceW);
+        black.send(Packet.turn('B', white.getNickname()));
+        white.send(Packet.turn('B', black.getNickname()));
+        broadcast(Packet.life('B', lifeB));
+        broadcast(Packet.life('W', lifeW));
+        broadcast(Packet.chances('B', chanceB));
+        broadcast(Packet.chances('W', chanceW));
 
         updateBan();
+        sentBan = null;
         sendBanAll();
     }
 
@@ -366,184 +832,84 @@ public class Room {
     // ---------------------------------------------------------
     private void endGame() {
 
-        broadcast("END");
-
-        for (Player p : players)
-            p.setInGame(false);
-
-        manager.removeRoom(roomName);
-    }
+        cancelHints();
 
+        broadcastPlayers(Packet.text("END"));
 
-    private void broadcast(String msg) {
+        // 로비로 돌아감 → 다시 QUICKMATCH / WATCH / PLAYAI 가능
         for (Player p : players) {
-            p.send(msg);
+            p.setInGame(false);
+            p.setRoom(null);
         }
-    }
-
 
-
-    // ---------------------------------------------------------
-    //  금수(33/44/6목) 관련
-    // ---------------------------------------------------------
-    private void updateBan() {
-
-        for (int i = 0; i < SIZE; i++)
-            for (int j = 0; j < SIZE; j++)
-                isBan[i][j] = false;
-
-        for (int r = 0; r < SIZE; r++)
-            for (int c = 0; c < SIZE; c++)
-                if (board[r][c] == null)
-                    if (isForbiddenMove(r, c))
-                        isBan[r][c] = true;
+        journal.end(id);
+        releaseSpectators();
+        manager.removeRoom(this);
     }
 
- // 금수 전송
-    private void sendBanAll() {
-        // 기존 금수 초기화
-        broadcast("BAN_CLEAR");   
 
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                if (isBan[r][c]) {
-                    broadcast("BAN " + r + " " + c);
-                }
-            }
-        }
+    private void broadcast(String msg) {
+        broadcast(Packet.text(msg));
     }
 
-
-
-    // ---------------------------------------------------------
-    //  금수 판정
-    // ---------------------------------------------------------
-    private boolean isForbiddenMove(int r, int c) {
-
-        board[r][c] = "B";
-
-        if (isSix(r, c)) {
-            board[r][c] = null;
-            return true;
-        }
-
-        int open3 = 0, open4 = 0;
-
-        int[][] d = {{1,0},{0,1},{1,1},{1,-1}};
-
-        for (int[] dir : d) {
-
-            String line = getLine(r, c, dir[0], dir[1]);
-
-            if (checkOpenThree(line)) open3++;
-            if (checkOpenFour(line)) open4++;
+    // 대국자 + 관전자
+    private void broadcast(Packet packet) {
+        broadcastPlayers(packet);
+        for (Player p : spectators) {
+            p.send(packet);
         }
-
-        board[r][c] = null;
-
-        if (open3 >= 2) return true; // 33
-        if (open4 >= 2) return true; // 44
-
-        return false;
     }
 
-
-    // 6목 검사
-    private boolean isSix(int r, int c) {
-
-        String color = "B";
-        int[][] d = {{1,0},{0,1},{1,1},{1,-1}};
-
-        for (int[] dir : d) {
-            int cnt = count(r, c, dir[0], dir[1], color)
-                    + count(r, c, -dir[0], -dir[1], color) - 1;
-
-            if (cnt > 5) return true;
+    // 대국자에게만 (금수판)
+    private void broadcastPlayers(Packet packet) {
+        for (Player p : players) {
+            p.send(packet);
         }
-        return false;
     }
 
-    // 특정 방향 연속 개수
-    private int count(int r, int c, int dr, int dc, String color) {
-        int cnt = 0;
-
-        while (r >= 0 && r < SIZE &&
-               c >= 0 && c < SIZE &&
-               color.equals(board[r][c])) {
-
-            cnt++;
-            r += dr;
-            c += dc;
+    // 방 안 모든 플레이어(관전자 포함)의 송신 큐 전송
+    private void flushAll() {
+        for (Player p : players) {
+            p.flush();
+        }
+        for (Player p : spectators) {
+            p.flush();
         }
-
-        return cnt;
     }
 
 
-    // 11칸 라인 생성
-    private String getLine(int r, int c, int dr, int dc) {
-
-        StringBuilder sb = new StringBuilder();
-
-        for (int k = -5; k <= 5; k++) {
-
-            int nr = r + dr * k;
-            int nc = c + dc * k;
 
-            if (nr < 0 || nr >= SIZE || nc < 0 || nc >= SIZE)
-                sb.append("X");
-            else if (board[nr][nc] == null)
-                sb.append(".");
-            else
-                sb.append(board[nr][nc]);
-        }
-
-        return sb.toString();
-    }
+    // ---------------------------------------------------------
+    //  금수(33/44/6목) 관련
+    // ---------------------------------------------------------
+    // 쌓인 칸들만 다시 판정 → 흑 차례가 아니면 미루고 false
+    private boolean updateBan() {
 
-    // 오픈쓰리
-    private boolean checkOpenThree(String line) {
-        String[] patterns = {
-                ".BBB.",
-                ".BB.B.",
-                ".B.BB.",
-                ".B.B.B.",
-                "..BB.B..",
-                "..B.BB.."
-        };
+        if (turn != 'B') return false;
 
-        for (String p : patterns)
-            if (line.contains(p))
-                return true;
+        long start = System.nanoTime();
+        bans.update(board);
+        Metrics.UPDATE_BAN.recordSince(start);
 
-        return false;
+        return true;
     }
 
-    // 오픈포
-    private boolean checkOpenFour(String line) {
-        String[] patterns = {
-                ".BBBB.",
-                ".BBB.B.",
-                ".BB.BB.",
-                ".B.BBB."
-        };
+    // 금수 전송
+    // 바이너리 클라이언트는 직전 전송분과의 차이만 프레임 하나로 받음
+    private void sendBanAll() {
 
-        for (String p : patterns)
-            if (line.contains(p))
-                return true;
+        boolean[][] isBan = bans.map();
+        broadcastPlayers(Packet.banMap(isBan, sentBan));
 
-        return false;
+        if (sentBan == null) sentBan = new boolean[SIZE][SIZE];
+        for (int r = 0; r < SIZE; r++) {
+            System.arraycopy(isBan[r], 0, sentBan[r], 0, SIZE);
+        }
     }
 
 
-    // 5목 승리 판정
-    private boolean checkWin(int r, int c, String color) {
 
-        return (
-                count(r, c, 1, 0, color) + count(r, c,-1, 0,color) -1 >= 5 ||
-                count(r, c, 0, 1, color) + count(r, c, 0,-1,color) -1 >= 5 ||
-                count(r, c, 1, 1, color) + count(r, c,-1,-1,color) -1 >= 5 ||
-                count(r, c, 1,-1, color) + count(r, c,-1, 1,color) -1 >= 5
-        );
+    private static int stone(char color) {
+        return (color == 'B') ? Board.BLACK : Board.WHITE;
     }
 }
@@ -1,7 +1,17 @@
 package Server;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /*
  * RoomManager
@@ -10,20 +20,150 @@ import java.util.Map;
  * - 방 생성, 입장, 삭제, 목록 전달 기능을 모두 담당
  *
  * - Player는 로비 상태에서 OmokServer가 이 RoomManager에 명령을 전달한다.
+ *
+ * - 전역 잠금 없음
+ *   · 방 목록은 ConcurrentHashMap, 방 생성은 putIfAbsent 계열로 원자적 처리
+ *   · 입장 인원 제한은 Room이 좌석 CAS로 보장
+ *   · ROOMLIST 문자열은 버전이 붙은 스냅샷으로 캐시하고
+ *     방 상태가 바뀐 경우에만 다시 만든다
+ *
+ * - 모든 Room의 우편함을 비우는 공용 스케줄러 풀도 보유
+ *   (-Domok.room.threads, 기본값 CPU 수)
+ * - 방 변경은 LobbyFeed를 통해 구독 중인 로비 클라이언트에 푸시
+ * - 시작 시 저널/스냅샷에서 복구된 방들을 다시 등록하고,
+ *   원래 닉네임으로 접속하면 그 방 자리로 바로 돌려보냄 (reconnect)
+ *   -Domok.restore.holdSec (기본 300, 0이면 무기한) 안에 다시 시작되지
+ *   않은 방은 닫고 예약도 지움
+ * - captureRooms(): 방마다 우편함 안에서 상태를 떠서 모음 (SNAPSHOT)
+ * - QUICKMATCH 대기열은 MatchMaker가 짝지어 openMatchRoom()으로 방 생성
+ * - PLAYAI는 AiPlayer와 함께 방을 만들어 바로 시작
+ * - 찬스 힌트 분석 풀(AnalysisService)도 보유 (Room이 getAnalysis()로 요청)
  * -----------------------------------------------------
  */
 
 public class RoomManager {
 
     // 전체 방 목록 (방 이름 → Room 객체)
-    private Map<String, Room> rooms = new HashMap<>();
+    private Map<String, Room> rooms = new ConcurrentHashMap<>();
+
+    // 방 상태가 바뀔 때마다 증가하는 버전
+    private final AtomicLong version = new AtomicLong();
+
+    // 마지막으로 만든 ROOMLIST 문자열 (불변 객체로 통째 교체, 버전은 앞으로만 감)
+    private final AtomicReference<RoomListSnapshot> snapshot =
+            new AtomicReference<>(new RoomListSnapshot(-1, null));
+
+    // Room 우편함을 실행하는 공용 풀
+    private final ExecutorService scheduler = Mailbox.newPool("room",
+            Integer.getInteger("omok.room.threads", Runtime.getRuntime().availableProcessors()));
+
+    // 로비 구독자에게 방 목록 변경분 푸시 (-Domok.lobby.batchMs, 기본 50ms)
+    private final LobbyFeed feed = new LobbyFeed(this,
+            new Mailbox("LobbyFeed", scheduler),
+            Executors.newSingleThreadScheduledExecutor(Mailbox.daemonThreads("lobby-timer")),
+            Long.getLong("omok.lobby.batchMs", 50));
+
+    // 빠른 대전 대기열 (-Domok.match.batchMs, 기본 100ms)
+    private final MatchMaker matcher = new MatchMaker(this,
+            Executors.newSingleThreadScheduledExecutor(Mailbox.daemonThreads("matchmaker")),
+            Long.getLong("omok.match.batchMs", 100));
+
+    // 찬스 힌트 분석 풀
+    private final AnalysisService analysis = new AnalysisService(
+            Integer.getInteger("omok.hint.threads", 2),
+            Integer.getInteger("omok.hint.queue", 64),
+            Long.getLong("omok.hint.ms", 500));
+
+    // 빠른 대전 / AI 대전 방 이름 번호
+    private final AtomicLong matchSeq = new AtomicLong();
+
+    // 방 상태 기록 (끄면 Journal.DISABLED)
+    private final Journal journal;
+
+    // 저널용 방 번호 (같은 이름의 방이 다시 만들어져도 구분)
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    // 복구된 방에 자리가 예약된 닉네임 → 방 (게임이 다시 시작되면 지움)
+    private final Map<String, Room> reservedSeats = new ConcurrentHashMap<>();
+
+    // 복구된 방을 원래 플레이어에게 잡아 두는 시간
+    private static final long RESTORE_HOLD_SEC = Long.getLong("omok.restore.holdSec", 300);
+
+    public RoomManager() {
+        this(Journal.DISABLED, List.of());
+    }
+
+    RoomManager(Journal journal, List<RoomState> restored) {
+        this.journal = journal;
+
+        for (RoomState s : restored) {
+            Room room = new Room(s, this);
+            rooms.put(s.name, room);
+            for (String nick : s.seats) {
+                if (nick != null) reservedSeats.put(nick, room);
+            }
+            nextId.accumulateAndGet(s.id + 1, Math::max);
+
+            // 로비 구독자 목록에도 처음부터 보이도록
+            roomChanged(room);
+        }
+
+        if (!restored.isEmpty() && RESTORE_HOLD_SEC > 0) {
+            ScheduledExecutorService timer =
+                    Executors.newSingleThreadScheduledExecutor(Mailbox.daemonThreads("restore-timer"));
+            timer.schedule(() -> {
+                for (Room room : rooms.values()) room.expireReservation();
+                timer.shutdown();
+            }, RESTORE_HOLD_SEC, TimeUnit.SECONDS);
+        }
+    }
+
+    private static final class RoomListSnapshot {
+        final long version;
+        final String text;
+
+        RoomListSnapshot(long version, String text) {
+            this.version = version;
+            this.text = text;
+        }
+    }
 
 
     // -----------------------------------------------------
     // 방 목록 요청
     // 클라이언트는 "ROOMLIST ..." 형태의 문자열을 받게 된다.
+    // 변경이 없으면 캐시된 스냅샷을 그대로 반환 (잠금 없음)
     // -----------------------------------------------------
-    public synchronized String getRoomList() {
+    public String getRoomList() {
+
+        long start = System.nanoTime();
+        try {
+            return roomList();
+        } finally {
+            Metrics.ROOM_LIST.recordSince(start);
+        }
+    }
+
+    private String roomList() {
+
+        long v = version.get();
+        RoomListSnapshot snap = snapshot.get();
+
+        if (snap.version == v)
+            return snap.text;
+
+        String text = buildRoomList();
+
+        // 더 최신 스냅샷을 다른 스레드가 이미 만들었으면 덮어쓰지 않음
+        // (CAS 실패 = 그 사이 누가 바꿈 → 다시 비교)
+        RoomListSnapshot next = new RoomListSnapshot(v, text);
+        while (snap.version < v && !snapshot.compareAndSet(snap, next))
+            snap = snapshot.get();
+
+        return text;
+    }
+
+    private String buildRoomList() {
 
         if (rooms.isEmpty())
             return "ROOMLIST EMPTY";
@@ -31,33 +171,77 @@ public class RoomManager {
         // ROOMLIST 방이름(현재인원/2) 방이름(현재인원/2)...
         StringBuilder sb = new StringBuilder("ROOMLIST");
 
-        for (String roomName : rooms.keySet()) {
-            Room r = rooms.get(roomName);
+        for (Room r : rooms.values()) {
             int cnt = r.getPlayerCount(); // 현재 인원 수
-            sb.append(" ").append(roomName).append("(").append(cnt).append("/2)");
+            sb.append(" ").append(r.getRoomName()).append("(").append(cnt).append("/2)");
         }
 
         return sb.toString();
     }
 
+    ExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    Journal getJournal() {
+        return journal;
+    }
+
+    AnalysisService getAnalysis() {
+        return analysis;
+    }
+
+    int nextRoomId() {
+        return nextId.getAndIncrement();
+    }
+
+    Room findRoom(String roomName) {
+        return rooms.get(roomName);
+    }
+
+    int getRoomCount() {
+        return rooms.size();
+    }
+
+    // Room의 인원 변화 등 목록 내용이 바뀌었을 때 호출
+    void roomChanged(Room room) {
+        version.incrementAndGet();
+        feed.markDirty(room.getRoomName());
+    }
+
+
+    // -----------------------------------------------------
+    // 로비 구독 (ROOMSUB)
+    // 방에 들어가거나 연결이 끊기면 구독 해제
+    // -----------------------------------------------------
+    public void subscribe(Player p) {
+        feed.subscribe(p);
+    }
+
+    public void unsubscribe(Player p) {
+        feed.unsubscribe(p);
+    }
+
 
     // -----------------------------------------------------
     // 방 생성
     // CREATE_ROOM 명령을 받은 Player가 host 역할이 된다.
+    // 다 만든 방을 putIfAbsent로 올리고, 저널/입장/알림은 그 뒤에
+    // host 좌석은 올리기 전에 잡아 두므로 먼저 들어온 JOINROOM이
+    // 흑 자리를 가로채지 못함 (그 사이 목록에는 0/2로 보일 수 있음)
     // -----------------------------------------------------
-    public synchronized String createRoom(String roomName, Player host) {
-
-        // 이미 존재하는 방 이름인지 체크
-        if (rooms.containsKey(roomName))
-            return "ERROR ROOMEXIST";
+    public String createRoom(String roomName, Player host) {
 
-        // 새 방 생성 후 목록에 등록
         Room room = new Room(roomName, this);
-        rooms.put(roomName, room);
+        room.holdSeats(1);
 
-        // 방에 host 추가 (첫번째 플레이어 = 흑)
-        room.addPlayer(host);
+        // 이미 존재하는 방 이름
+        if (rooms.putIfAbsent(roomName, room) != null)
+            return "ERROR ROOMEXIST";
 
+        room.open(host); // 방에 host 추가 (첫번째 플레이어 = 흑)
+
+        unsubscribe(host);
         return "ROOMCREATED " + roomName;
     }
 
@@ -65,35 +249,144 @@ public class RoomManager {
     // -----------------------------------------------------
     // 방 입장
     // 방이 존재하는지, 꽉 차지 않았는지 검증 후 입장
+    // 성공 시 null 반환 (JOINED 방이름 W 는 Room.addPlayer가 이미 전송)
     // -----------------------------------------------------
-    public synchronized String joinRoom(String roomName, Player p) {
-
-        if (!rooms.containsKey(roomName))
-            return "ERROR NOROOM";
+    public String joinRoom(String roomName, Player p) {
 
         Room room = rooms.get(roomName);
 
-        // 최대 2명까지 플레이 가능
-        if (room.getPlayerCount() >= 2)
+        if (room == null)
+            return "ERROR NOROOM";
+
+        // 최대 2명까지 플레이 가능 (좌석 확보 실패 시 FULL)
+        if (!room.addPlayer(p)) // 두 번째 플레이어 입장 (백)
             return "ERROR FULL";
 
-        room.addPlayer(p); // 두 번째 플레이어 입장 (백)
+        unsubscribe(p);
 
         // 입장 후 인원이 2명이 되면 자동으로 게임 시작
         if (room.getPlayerCount() == 2) {
             room.startGame();
         }
 
-        return "JOINED " + roomName;
+        return null;
+    }
+
+
+    // -----------------------------------------------------
+    // 빠른 대전 (QUICKMATCH / CANCELMATCH)
+    // -----------------------------------------------------
+    public boolean queueMatch(Player p) {
+        if (!matcher.enqueue(p)) return false;
+        unsubscribe(p);
+        return true;
+    }
+
+    public boolean cancelMatch(Player p) {
+        return matcher.cancel(p);
+    }
+
+    // MatchMaker가 짝지은 두 명으로 방 생성 + 바로 시작
+    void openMatchRoom(Player black, Player white) {
+        Room room = openRoom("quick-", black, white);
+        Log.info(Log.ROOM, "[RoomManager] 빠른 대전: " + room.getRoomName()
+                + " " + black.getNickname() + " vs " + white.getNickname());
+    }
+
+
+    // -----------------------------------------------------
+    // AI 대전 (PLAYAI [B|W]) - aiColor는 AI가 둘 색
+    // -----------------------------------------------------
+    public void playAi(Player human, char aiColor) {
+        unsubscribe(human);
+        AiPlayer ai = new AiPlayer();
+        Room room = (aiColor == 'B') ? openRoom("ai-", ai, human) : openRoom("ai-", human, ai);
+        Log.info(Log.ROOM, "[RoomManager] AI 대전: " + room.getRoomName() + " " + human.getNickname());
+    }
+
+    // 두 명을 앉힌 방 생성 + 바로 시작
+    // 이름은 prefix + 번호, 사용자가 같은 이름을 먼저 만들었으면 다음 번호
+    private Room openRoom(String prefix, Player black, Player white) {
+
+        Room room;
+        do {
+            room = new Room(prefix + matchSeq.incrementAndGet(), this);
+            room.holdSeats(2);
+        } while (rooms.putIfAbsent(room.getRoomName(), room) != null);
+
+        room.open(black, white);  // JOINED 방이름 B / JOINED 방이름 W
+        room.startGame();
+        return room;
+    }
+
+
+    // -----------------------------------------------------
+    // 관전 (WATCH 방이름)
+    // 인원 제한 없음, 성공 시 null (WATCHING은 Room이 전송)
+    // -----------------------------------------------------
+    public String watchRoom(String roomName, Player p) {
+
+        Room room = rooms.get(roomName);
+        if (room == null)
+            return "ERROR NOROOM";
+
+        unsubscribe(p);
+        p.setWatching(room);
+        room.addSpectator(p);
+        return null;
+    }
+
+
+    // -----------------------------------------------------
+    // 재접속
+    // 재시작 전 게임에 앉아 있던 닉네임이면 그 방 자리로 입장
+    // -----------------------------------------------------
+    void reconnect(Player p) {
+
+        Room room = reservedSeats.remove(p.getNickname());
+        if (room == null || rooms.get(room.getRoomName()) != room) return;
+
+        if (joinRoom(room.getRoomName(), p) == null) {
+            Log.info(Log.ROOM, "[RoomManager] 재접속: " + p.getNickname() + " → " + room.getRoomName());
+        }
+    }
+
+    // 복구된 방이 다시 시작됨 → 남은 예약 정리
+    void reservationsDone(Room room) {
+        reservedSeats.values().removeIf(r -> r == room);
+    }
+
+
+    // -----------------------------------------------------
+    // 스냅샷
+    // 방마다 우편함에 상태 복사를 넣고 전부 모일 때까지 기다림
+    // (방들은 각자 명령 사이의 시점에서 복사되고, 게임은 멈추지 않음)
+    // -----------------------------------------------------
+    List<RoomState> captureRooms() {
+
+        List<CompletableFuture<RoomState>> pending = new ArrayList<>();
+        for (Room room : rooms.values()) {
+            pending.add(room.capture());
+        }
+
+        List<RoomState> states = new ArrayList<>(pending.size());
+        for (CompletableFuture<RoomState> f : pending) {
+            RoomState s = f.join();
+            if (s != null) states.add(s);
+        }
+        return states;
     }
 
 
     // -----------------------------------------------------
     // 방 삭제
     // 방 내부에서 removePlayer() → 인원 0 → RoomManager.removeRoom 호출됨
+    // 같은 이름으로 새로 만들어진 방은 지우지 않도록 객체까지 비교
     // -----------------------------------------------------
-    public synchronized void removeRoom(String roomName) {
-        rooms.remove(roomName);
-        System.out.println("[RoomManager] Removed " + roomName);
+    public void removeRoom(Room room) {
+        if (rooms.remove(room.getRoomName(), room)) {
+            roomChanged(room);
+            Log.info(Log.ROOM, "[RoomManager] Removed " + room.getRoomName());
+        }
     }
 }
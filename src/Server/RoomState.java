@@ -0,0 +1,111 @@
+package Server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * RoomState
+ * ------------------------------------------------------
+ * - 방 하나의 게임 상태를 Room 밖으로 꺼낸 값 객체
+ *   (방 이름, 좌석 닉네임, 착수 기록, 턴, 생명, 찬스, 종료 여부)
+ * - 저널 재생(Journal)이 레코드를 하나씩 apply 해서 만들고
+ *   재시작 후 Room(RoomState, ...)이 이것으로 방을 다시 세운다
+ * - 판(Board)은 착수 기록만으로 다시 만들 수 있으므로 따로 두지 않음
+ * ------------------------------------------------------
+ */
+
+final class RoomState {
+
+    static final int MAX_LIFE = 3;
+    static final int MAX_CHANCE = 2;
+
+    final int id;
+    final String name;
+
+    // 자리별 닉네임 (0: 흑, 1: 백, null = 빈 자리)
+    final String[] seats = new String[2];
+
+    // 착수 기록: cell(r * 15 + c) | 돌 색(Board.BLACK/WHITE) << 8
+    final List<Integer> moves = new ArrayList<>();
+
+    boolean started;
+    char turn = 'B';
+    int lifeB = MAX_LIFE, lifeW = MAX_LIFE;
+    int chanceB = MAX_CHANCE, chanceW = MAX_CHANCE;
+    boolean gameOver;
+
+    RoomState(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    static int move(int r, int c, int stone) {
+        return (r * Board.SIZE + c) | (stone << 8);
+    }
+
+    static int row(int move)   { return (move & 0xFF) / Board.SIZE; }
+    static int col(int move)   { return (move & 0xFF) % Board.SIZE; }
+    static int stone(int move) { return move >>> 8; }
+
+
+    // ------------------------------------------
+    // 저널 레코드 하나 반영 (Journal.replay)
+    // ------------------------------------------
+    // 입장 / 퇴장: 자리 번호 그대로
+    void seat(int seat, String nickname) {
+        if (seat >= 0 && seat < 2) seats[seat] = nickname;
+    }
+
+    boolean hasSeats() {
+        return seats[0] != null || seats[1] != null;
+    }
+
+    void apply(byte type, int a, int b, int c, int d) {
+
+        switch (type) {
+            case Journal.LEAVE:
+                seat(a, null);
+                break;
+
+            case Journal.START:
+                started = true;
+                break;
+
+            case Journal.PLACE:
+                moves.add(move(a, b, (c == 'B') ? Board.BLACK : Board.WHITE));
+                if (d != 0) gameOver = true;              // 5목이면 턴이 넘어가지 않음
+                else turn = (c == 'B') ? 'W' : 'B';
+                break;
+
+            case Journal.UNDO:
+                if (moves.isEmpty()) break;
+                moves.remove(moves.size() - 1);
+                turn = (turn == 'B') ? 'W' : 'B';
+                break;
+
+            case Journal.LIFE:
+                if (a == 'B') lifeB = b;
+                else lifeW = b;
+                if (b <= 0) gameOver = true;
+                break;
+
+            case Journal.CHANCE:
+                if (a == 'B') chanceB = b;
+                else chanceW = b;
+                break;
+
+            case Journal.RESET:
+                moves.clear();
+                lifeB = lifeW = MAX_LIFE;
+                chanceB = chanceW = MAX_CHANCE;
+                turn = 'B';
+                gameOver = false;
+                break;
+
+            case Journal.STATE:
+                turn = (char) a;
+                gameOver = (b != 0);
+                break;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package Server;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * SessionStats
+ * ------------------------------------------------------
+ * - 현재 접속 중인 세션 수와 최대 동시 세션 수를 집계
+ * - 주기적으로 모드별 세션 수 / 힙 사용량 / 스레드 수를 출력하여
+ *   THREAD · VIRTUAL · NIO 모드가 실제로 몇 세션까지 버티는지 비교
+ * ------------------------------------------------------
+ */
+
+class SessionStats {
+
+    private final OmokServer.Mode mode;
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    private final long baseHeap;        // 시작 시점 힙 사용량 (세션당 비용 계산용)
+
+    SessionStats(OmokServer.Mode mode) {
+        this.mode = mode;
+        this.baseHeap = usedHeap();
+    }
+
+    void opened() {
+        Metrics.CONNECTIONS_ACCEPTED.increment();
+        int n = open.incrementAndGet();
+        peak.accumulateAndGet(n, Math::max);
+    }
+
+    void closed() {
+        open.decrementAndGet();
+    }
+
+    int getOpen() { return open.get(); }
+
+    // ------------------------------------------
+    // 시작 시 실행 환경 출력
+    // ------------------------------------------
+    void printStartup() {
+        Runtime rt = Runtime.getRuntime();
+        Log.info(Log.SERVER, "[SERVER] 모드=" + mode
+                + " CPU=" + rt.availableProcessors()
+                + " 최대힙=" + (rt.maxMemory() >> 20) + "MB");
+    }
+
+    // ------------------------------------------
+    // 주기 보고용 한 줄 요약
+    // ------------------------------------------
+    String report() {
+        int n = open.get();
+        long heap = usedHeap();
+        long perSession = (n > 0) ? Math.max(0, heap - baseHeap) / n : 0;
+
+        return "[SERVER] 모드=" + mode
+                + " 세션=" + n
+                + " 최대=" + peak.get()
+                + " 힙=" + (heap >> 20) + "MB"
+                + " 세션당≈" + (perSession >> 10) + "KB"
+                + " 스레드=" + Thread.activeCount();
+    }
+
+    // ------------------------------------------
+    // intervalSec 초마다 report() 출력 (0이면 사용 안 함)
+    // ------------------------------------------
+    void startReporter(int intervalSec) {
+        if (intervalSec <= 0) return;
+
+        Thread t = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(intervalSec * 1000L);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                Log.info(Log.SERVER, report());
+            }
+        }, "session-report");
+
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,129 @@
+package Server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Snapshot
+ * ------------------------------------------------------
+ * - 살아 있는 방 전체를 이진 파일 하나로 저장 / 읽기 (무중단 재시작용)
+ *     관리 포트에서   SNAPSHOT [파일]      (기본 -Domok.snapshot=omok.snapshot)
+ *     새 서버 시작 시 -Domok.restore=파일
+ * - 방마다 자기 우편함 안에서 RoomState를 떠 오므로 게임은 멈추지 않고,
+ *   각 방은 명령 사이의 온전한 상태로 저장됨
+ * - 파일 형식 (DataOutputStream, big-endian)
+ *     "OMKS" 버전(short) 시각(long) 방 수(int)
+ *     방마다: id(int) 이름(UTF) 자리 2개(흑, 백): 있음(byte 0/1) [닉네임(UTF)]
+ *             플래그(byte: 1=시작됨 2=종료) 턴(byte)
+ *             생명 흑/백, 찬스 흑/백(byte 4개) 수 개수(short) 수(short)...
+ *   수 하나 = cell | 돌 색 << 8 (RoomState.move)
+ * - 임시 파일에 쓰고 force 후 이름을 바꾸므로 반쯤 쓴 파일이 남지 않음
+ * ------------------------------------------------------
+ */
+
+final class Snapshot {
+
+    private static final int MAGIC = 0x4F4D4B53;    // "OMKS"
+    private static final short VERSION = 2;    // 2: 빈 자리도 자리 순서대로 기록
+
+    private static final Metrics.Histogram WRITE = Metrics.histogram("latency.snapshot");
+
+    private Snapshot() {}
+
+
+    // ------------------------------------------
+    // 저장: 방 수 반환
+    // ------------------------------------------
+    static int write(List<RoomState> states, Path path) throws IOException {
+
+        long start = System.nanoTime();
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileOutputStream file = new FileOutputStream(tmp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(states.size());
+
+            for (RoomState s : states) {
+                out.writeInt(s.id);
+                out.writeUTF(s.name);
+
+                for (String nick : s.seats) {
+                    out.writeBoolean(nick != null);
+                    if (nick != null) out.writeUTF(nick);
+                }
+
+                out.writeByte((s.started ? 1 : 0) | (s.gameOver ? 2 : 0));
+                out.writeByte(s.turn);
+                out.writeByte(s.lifeB);
+                out.writeByte(s.lifeW);
+                out.writeByte(s.chanceB);
+                out.writeByte(s.chanceW);
+
+                out.writeShort(s.moves.size());
+                for (int m : s.moves) out.writeShort(m);
+            }
+
+            out.flush();
+            file.getFD().sync();
+        }
+
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        WRITE.recordSince(start);
+        return states.size();
+    }
+
+
+    // ------------------------------------------
+    // 읽기 (서버 시작 시)
+    // ------------------------------------------
+    static List<RoomState> read(Path path) throws IOException {
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+
+            if (in.readInt() != MAGIC) throw new IOException("스냅샷 파일이 아님: " + path);
+            short version = in.readShort();
+            if (version != VERSION) throw new IOException("지원하지 않는 스냅샷 버전: " + version);
+            in.readLong();
+
+            int count = in.readInt();
+            List<RoomState> states = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++) {
+                RoomState s = new RoomState(in.readInt(), in.readUTF());
+
+                for (int k = 0; k < 2; k++) {
+                    if (in.readBoolean()) s.seats[k] = in.readUTF();
+                }
+
+                int flags = in.readUnsignedByte();
+                s.started = (flags & 1) != 0;
+                s.gameOver = (flags & 2) != 0;
+                s.turn = (char) in.readUnsignedByte();
+                s.lifeB = in.readByte();
+                s.lifeW = in.readByte();
+                s.chanceB = in.readByte();
+                s.chanceW = in.readByte();
+
+                int moves = in.readUnsignedShort();
+                for (int k = 0; k < moves; k++) s.moves.add(in.readUnsignedShort());
+
+                states.add(s);
+            }
+            return states;
+        }
+    }
+}